@@ -0,0 +1,100 @@
+package com.aliifishmarket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result with a saved baseline, benchmark by benchmark.
+ * Run by the benchmark profile after the benchmarks; a change is only called
+ * faster or slower when the two score ± error intervals don't overlap.
+ *
+ * Usage: BenchmarkComparison baseline.json jmh-result.json
+ */
+public class BenchmarkComparison {
+
+    public static void main(String[] args) throws Exception {
+        File baselineFile = new File(args[0]);
+        File resultFile = new File(args[1]);
+        if (!baselineFile.isFile()) {
+            System.out.println("No benchmark baseline at " + baselineFile + "; to start one:");
+            System.out.println("  cp " + resultFile + " " + baselineFile);
+            return;
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode baselineRuns = objectMapper.readTree(baselineFile);
+        JsonNode resultRuns = objectMapper.readTree(resultFile);
+        Map<String, JsonNode> baseline = byKey(baselineRuns);
+        Map<String, JsonNode> result = byKey(resultRuns);
+
+        String baselineJdk = jdk(baselineRuns);
+        String resultJdk = jdk(resultRuns);
+        if (!baselineJdk.equals(resultJdk)) {
+            System.out.println("Warning: baseline ran on " + baselineJdk + ", this run on " + resultJdk);
+        }
+
+        System.out.printf("%-80s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, JsonNode> entry : result.entrySet()) {
+            JsonNode current = entry.getValue().path("primaryMetric");
+            JsonNode before = baseline.containsKey(entry.getKey())
+                ? baseline.get(entry.getKey()).path("primaryMetric") : null;
+            String unit = current.path("scoreUnit").asText();
+
+            if (before == null) {
+                System.out.printf("%-80s %14s %14s %9s%n", entry.getKey(), "-", format(current, unit), "new");
+                continue;
+            }
+            double was = before.path("score").asDouble();
+            double now = current.path("score").asDouble();
+            double change = was == 0 ? 0 : (now - was) / was * 100;
+            boolean separated = Math.abs(now - was) > error(before) + error(current);
+            // Lower is better for time per op, higher for throughput
+            boolean better = unit.endsWith("/op") ? now < was : now > was;
+            System.out.printf("%-80s %14s %14s %+8.1f%% %s%n", entry.getKey(), format(before, unit),
+                format(current, unit), change, separated ? (better ? "faster" : "SLOWER") : "");
+        }
+        long notRun = baseline.keySet().stream().filter(key -> !result.containsKey(key)).count();
+        if (notRun > 0) {
+            System.out.println("(" + notRun + " baseline benchmarks not run)");
+        }
+    }
+
+    /**
+     * Runs keyed by short benchmark name plus parameters, e.g. ErrorClassifierBenchmark.compiled:messages=long
+     */
+    private static Map<String, JsonNode> byKey(JsonNode runs) {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode run : runs) {
+            String benchmark = run.path("benchmark").asText();
+            String name = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+            StringBuilder key = new StringBuilder(name);
+            Map<String, String> params = new TreeMap<>();
+            for (Iterator<Map.Entry<String, JsonNode>> it = run.path("params").fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> param = it.next();
+                params.put(param.getKey(), param.getValue().asText());
+            }
+            params.forEach((param, value) -> key.append(':').append(param).append('=').append(value));
+            byKey.put(key.toString(), run);
+        }
+        return byKey;
+    }
+
+    private static String jdk(JsonNode runs) {
+        return runs.size() == 0 ? "" : runs.get(0).path("jdkVersion").asText() + " " + runs.get(0).path("vmName").asText();
+    }
+
+    private static double error(JsonNode metric) {
+        double error = metric.path("scoreError").asDouble();
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    private static String format(JsonNode metric, String unit) {
+        return String.format("%.1f %s", metric.path("score").asDouble(), unit);
+    }
+}
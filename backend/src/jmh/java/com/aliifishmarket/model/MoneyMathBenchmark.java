@@ -0,0 +1,58 @@
+package com.aliifishmarket.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BigDecimal money math on the entities: cash change, transaction line totals and
+ * order item subtotals, as recomputed by their setters and persistence callbacks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MoneyMathBenchmark {
+
+    private Transaction transaction;
+    private TransactionItem transactionItem;
+    private OrderItem orderItem;
+
+    @Setup
+    public void setUp() {
+        transaction = new Transaction();
+        transaction.setPaymentMethod(Transaction.PaymentMethod.CASH);
+        transaction.setTotalAmount(new BigDecimal("47.36"));
+        transaction.setCashReceived(new BigDecimal("60.00"));
+
+        transactionItem = new TransactionItem(transaction, "Ahi Poke Bowl", new BigDecimal("16.95"), 2);
+
+        orderItem = new OrderItem();
+        orderItem.setUnitPrice(new BigDecimal("15.50"));
+        orderItem.setQuantity(3);
+    }
+
+    @Benchmark
+    public BigDecimal calculateChange() {
+        transaction.calculateChange();
+        return transaction.getChangeGiven();
+    }
+
+    @Benchmark
+    public BigDecimal transactionLineTotal() {
+        transactionItem.calculateTotalOnSave();
+        return transactionItem.getLineTotal();
+    }
+
+    @Benchmark
+    public BigDecimal orderItemSubtotal() {
+        orderItem.calculateSubtotal();
+        return orderItem.getSubtotal();
+    }
+}
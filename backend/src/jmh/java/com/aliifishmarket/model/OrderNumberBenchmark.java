@@ -0,0 +1,39 @@
+package com.aliifishmarket.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order number generation in Order's @PrePersist callback (timestamp plus a
+ * random UUID fragment), single-threaded and under contention from concurrent
+ * checkouts, since UUID.randomUUID draws from a shared SecureRandom.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderNumberBenchmark {
+
+    @Benchmark
+    public String generate() {
+        return newOrderNumber();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generateContended() {
+        return newOrderNumber();
+    }
+
+    private static String newOrderNumber() {
+        Order order = new Order("Kai Kealoha", "808-555-0142", Order.OrderType.PICKUP);
+        order.onCreate();
+        return order.getOrderNumber();
+    }
+}
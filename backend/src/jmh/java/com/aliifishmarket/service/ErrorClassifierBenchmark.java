@@ -0,0 +1,155 @@
+package com.aliifishmarket.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Severity and impact classification: the compiled keyword automaton against the
+ * previous hard-coded String.contains scans, and against a straightforward
+ * configurable engine (lowercase once, contains per keyword) over the same rules.
+ * The "large" rule set adds keywords to show how each approach scales with them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ErrorClassifierBenchmark {
+
+    private static final Exception[] SHORT_ERRORS = {
+        new IllegalArgumentException("Menu item not found: 42"),
+        new IllegalStateException("Payment declined by issuer"),
+        new RuntimeException("Connection is not available, request timed out after 30000ms"),
+        new IllegalArgumentException("Invalid input for field quantity"),
+    };
+
+    private static final Exception[] LONG_ERRORS = {
+        new RuntimeException("could not execute statement; SQL [insert into orders (created_at, customer_email, "
+            + "customer_name, customer_phone, notes, order_number, status, subtotal, tax, total) values (?,?,?,?,?,?,?,?,?,?)]; "
+            + "constraint [orders_order_number_key]; nested exception is duplicate key value violates unique constraint"),
+        new IllegalStateException("Failed to process request for menu item 17 after 3 attempts; last response from "
+            + "upstream was 503 Service Unavailable with body {\"error\":\"maintenance window\",\"retryAfter\":120}"),
+    };
+
+    @Param({ "short", "long" })
+    public String messages;
+
+    @Param({ "default", "large" })
+    public String ruleSet;
+
+    private Exception[] errors;
+    private ErrorClassifier.CompiledRules rules;
+    private String[][] keywordsByRule;
+
+    @Setup
+    public void setUp() throws Exception {
+        errors = "short".equals(messages) ? SHORT_ERRORS : LONG_ERRORS;
+        Properties properties = new Properties();
+        try (InputStream in = getClass().getResourceAsStream("/error-classification.properties")) {
+            properties.load(in);
+        }
+        if ("large".equals(ruleSet)) {
+            // 50 extra keywords spread over the existing rules
+            String[] rules = { "severity.critical", "severity.high", "severity.medium", "impact.order.keywords" };
+            for (int i = 0; i < 50; i++) {
+                String key = rules[i % rules.length];
+                properties.setProperty(key, properties.getProperty(key) + ",keyword" + i + "x");
+            }
+        }
+        rules = ErrorClassifier.CompiledRules.compile(properties);
+
+        String[] order = { "severity.critical", "severity.high", "severity.medium",
+            "impact.payment.keywords", "impact.order.keywords" };
+        keywordsByRule = new String[order.length][];
+        for (int i = 0; i < order.length; i++) {
+            keywordsByRule[i] = properties.getProperty(order[i]).split(",");
+        }
+    }
+
+    @Benchmark
+    public void compiled(Blackhole blackhole) {
+        for (Exception error : errors) {
+            ErrorClassifier.Classification classification =
+                rules.classify(error.getClass().getSimpleName(), error.getMessage());
+            blackhole.consume(classification.getSeverity());
+            blackhole.consume(classification.getBusinessImpact());
+        }
+    }
+
+    @Benchmark
+    public void keywordScans(Blackhole blackhole) {
+        for (Exception error : errors) {
+            String text = (error.getClass().getSimpleName() + " " + error.getMessage()).toLowerCase();
+            int severity = -1;
+            int impact = -1;
+            for (int rule = 0; rule < keywordsByRule.length; rule++) {
+                if ((rule < 3 ? severity : impact) >= 0) {
+                    continue;
+                }
+                for (String keyword : keywordsByRule[rule]) {
+                    if (text.contains(keyword)) {
+                        if (rule < 3) {
+                            severity = rule;
+                        } else {
+                            impact = rule;
+                        }
+                        break;
+                    }
+                }
+            }
+            blackhole.consume(severity);
+            blackhole.consume(impact);
+        }
+    }
+
+    @Benchmark
+    public void containsScans(Blackhole blackhole) {
+        for (Exception error : errors) {
+            blackhole.consume(determineSeverity(error));
+            blackhole.consume(assessBusinessImpact(error));
+        }
+    }
+
+    // The previous ErrorMonitorService implementation
+
+    private static String determineSeverity(Exception error) {
+        if (error.getMessage().contains("payment") || error.getMessage().contains("transaction")) {
+            return "critical";
+        } else if (error.getMessage().contains("database") || error.getMessage().contains("connection")) {
+            return "high";
+        } else if (error.getMessage().contains("validation") || error.getMessage().contains("input")) {
+            return "medium";
+        }
+        return "low";
+    }
+
+    private static Map<String, String> assessBusinessImpact(Exception error) {
+        Map<String, String> impact = new HashMap<>();
+        String message = error.getMessage().toLowerCase();
+        if (message.contains("payment") || message.contains("transaction")) {
+            impact.put("revenue", "high");
+            impact.put("operations", "high");
+            impact.put("reputation", "medium");
+        } else if (message.contains("order") || message.contains("customer")) {
+            impact.put("revenue", "medium");
+            impact.put("operations", "high");
+            impact.put("reputation", "medium");
+        } else {
+            impact.put("revenue", "low");
+            impact.put("operations", "low");
+            impact.put("reputation", "low");
+        }
+        return impact;
+    }
+}
@@ -0,0 +1,121 @@
+package com.aliifishmarket.service;
+
+import ch.qos.logback.classic.Level;
+import com.aliifishmarket.config.ErrorMonitorConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * ErrorMonitorService building a report on the request thread: fingerprint,
+ * sampling, classification, (cached) stack trace and the report map, up to the
+ * hand-off to the dispatcher, which here just keeps the last report. "reported"
+ * builds every report in full; "sampledOut" is a repeat past first-occurrences.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ErrorMonitorServiceBenchmark {
+
+    @Param({ "reported", "sampledOut" })
+    public String sampling;
+
+    private ErrorMonitorService errorMonitorService;
+    private LastReportDispatcher dispatcher;
+    private Exception runtimeError;
+    private Exception paymentError;
+
+    @Setup
+    public void setUp() {
+        // Log output is not what's being measured
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("com.aliifishmarket")).setLevel(Level.OFF);
+
+        dispatcher = new LastReportDispatcher();
+
+        StackTraceEncoder stackTraceEncoder = new StackTraceEncoder();
+        ReflectionTestUtils.setField(stackTraceEncoder, "maxChars", 4096);
+        ReflectionTestUtils.setField(stackTraceEncoder, "maxFrames", 40);
+        ReflectionTestUtils.setField(stackTraceEncoder, "cacheSize", 512);
+
+        ErrorSampler errorSampler = new ErrorSampler();
+        ReflectionTestUtils.setField(errorSampler, "errorReportDispatcher", dispatcher);
+        ReflectionTestUtils.setField(errorSampler, "stackTraceEncoder", stackTraceEncoder);
+        ReflectionTestUtils.setField(errorSampler, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(errorSampler, "firstOccurrences", "reported".equals(sampling) ? Integer.MAX_VALUE : 0);
+        ReflectionTestUtils.setField(errorSampler, "maxFingerprints", 1000);
+        ReflectionTestUtils.setField(errorSampler, "idleResetMs", 600000L);
+        errorSampler.init();
+
+        ErrorClassifier errorClassifier = new ErrorClassifier();
+        ReflectionTestUtils.setField(errorClassifier, "resourceLoader", new DefaultResourceLoader());
+        ReflectionTestUtils.setField(errorClassifier, "rulesLocation", "classpath:error-classification.properties");
+        errorClassifier.init();
+
+        ErrorMonitorConfig errorMonitorConfig = new ErrorMonitorConfig();
+        ReflectionTestUtils.setField(errorMonitorConfig, "errorMonitorEnabled", true);
+
+        errorMonitorService = new ErrorMonitorService();
+        ReflectionTestUtils.setField(errorMonitorService, "errorReportDispatcher", dispatcher);
+        ReflectionTestUtils.setField(errorMonitorService, "errorSampler", errorSampler);
+        ReflectionTestUtils.setField(errorMonitorService, "stackTraceEncoder", stackTraceEncoder);
+        ReflectionTestUtils.setField(errorMonitorService, "errorClassifier", errorClassifier);
+        ReflectionTestUtils.setField(errorMonitorService, "errorMonitorConfig", errorMonitorConfig);
+
+        runtimeError = thrownAtDepth(20, () -> new IllegalArgumentException("Menu item not found: 42"));
+        paymentError = thrownAtDepth(30, () -> new IllegalStateException("Payment declined by issuer for order ALI1760000000000-3F2A"));
+    }
+
+    @Benchmark
+    public Map<String, Object> reportError() {
+        errorMonitorService.reportError(runtimeError, "PUT /inventory/42/stock", "staff-7");
+        return dispatcher.last;
+    }
+
+    @Benchmark
+    public Map<String, Object> reportPaymentError() {
+        errorMonitorService.reportPaymentError(paymentError, "CARD", "47.36", "ALI1760000000000-3F2A");
+        return dispatcher.last;
+    }
+
+    /**
+     * An exception with a stack of the given depth, like one from a controller
+     */
+    private static Exception thrownAtDepth(int depth, Supplier<Exception> error) {
+        try {
+            recurse(depth, error);
+        } catch (Exception e) {
+            return e;
+        }
+        throw new IllegalStateException("not thrown");
+    }
+
+    private static void recurse(int depth, Supplier<Exception> error) throws Exception {
+        if (depth == 0) {
+            throw error.get();
+        }
+        recurse(depth - 1, error);
+    }
+
+    private static final class LastReportDispatcher extends ErrorReportDispatcher {
+        private Map<String, Object> last;
+
+        @Override
+        public boolean submit(String channel, Map<String, Object> report) {
+            last = report;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.aliifishmarket.service;
+
+import com.aliifishmarket.model.Transaction;
+import com.aliifishmarket.service.TransactionService.TransactionCreateRequest;
+import com.aliifishmarket.service.UppIntegrationService.UppPaymentResponse;
+import com.aliifishmarket.service.UppIntegrationService.UppPaymentStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson (de)serialization of the POS transaction request and the UPP response
+ * DTOs, with an ObjectMapper built the way Spring Boot builds the application's.
+ * UPP request serialization is covered by UppRequestSerializationBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JsonMappingBenchmark {
+
+    private static final byte[] PAYMENT_RESPONSE = ("{\"success\":true,\"paymentId\":\"pay_8f2c41d7\","
+        + "\"transactionId\":\"txn_20261018_0042\",\"paymentUrl\":\"https://upp.example.com/pay/pay_8f2c41d7\"}")
+        .getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] PAYMENT_STATUS = ("{\"paymentId\":\"pay_8f2c41d7\",\"status\":\"completed\","
+        + "\"transactionId\":\"txn_20261018_0042\",\"amount\":47.36}")
+        .getBytes(StandardCharsets.UTF_8);
+
+    private ObjectMapper objectMapper;
+    private TransactionCreateRequest request;
+    private byte[] requestJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        request = TransactionServiceBenchmark.request(Transaction.PaymentMethod.CASH, 5);
+        requestJson = objectMapper.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public TransactionCreateRequest readTransactionRequest() throws Exception {
+        return objectMapper.readValue(requestJson, TransactionCreateRequest.class);
+    }
+
+    @Benchmark
+    public byte[] writeTransactionRequest() throws Exception {
+        return objectMapper.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public UppPaymentResponse readPaymentResponse() throws Exception {
+        return objectMapper.readValue(PAYMENT_RESPONSE, UppPaymentResponse.class);
+    }
+
+    @Benchmark
+    public UppPaymentStatus readPaymentStatus() throws Exception {
+        return objectMapper.readValue(PAYMENT_STATUS, UppPaymentStatus.class);
+    }
+}
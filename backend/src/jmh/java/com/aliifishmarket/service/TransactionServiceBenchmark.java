@@ -0,0 +1,111 @@
+package com.aliifishmarket.service;
+
+import com.aliifishmarket.model.Staff;
+import com.aliifishmarket.model.Transaction;
+import com.aliifishmarket.repository.StaffRepository;
+import com.aliifishmarket.repository.TransactionRepository;
+import com.aliifishmarket.service.TransactionService.TransactionCreateRequest;
+import com.aliifishmarket.service.TransactionService.TransactionItemRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TransactionService.createTransaction mapping a POS request to the entity and
+ * its items, with in-memory repositories: the staff lookup returns a fixed
+ * cashier and save returns its argument, so only the mapping is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TransactionServiceBenchmark {
+
+    @Param({ "CASH", "CARD" })
+    public Transaction.PaymentMethod paymentMethod;
+
+    @Param({ "3", "12" })
+    public int itemCount;
+
+    private TransactionService transactionService;
+    private TransactionCreateRequest request;
+
+    @Setup
+    public void setUp() {
+        Staff cashier = new Staff("EMP001", "Leilani", "Kahale", "leilani@example.com", Staff.StaffRole.CASHIER);
+
+        transactionService = new TransactionService();
+        ReflectionTestUtils.setField(transactionService, "staffRepository", fake(StaffRepository.class, cashier));
+        ReflectionTestUtils.setField(transactionService, "transactionRepository", fake(TransactionRepository.class, null));
+        ReflectionTestUtils.setField(transactionService, "meterRegistry", new SimpleMeterRegistry());
+
+        request = request(paymentMethod, itemCount);
+    }
+
+    @Benchmark
+    public Transaction createTransaction() {
+        return transactionService.createTransaction(request);
+    }
+
+    static TransactionCreateRequest request(Transaction.PaymentMethod paymentMethod, int itemCount) {
+        String[] names = { "Ahi Poke Bowl", "Spicy Salmon Poke", "Kalua Pork Plate", "Garlic Shrimp", "Spam Musubi" };
+        String[] prices = { "16.95", "15.50", "14.25", "18.75", "3.50" };
+
+        List<TransactionItemRequest> items = new ArrayList<>(itemCount);
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (int i = 0; i < itemCount; i++) {
+            TransactionItemRequest item = new TransactionItemRequest();
+            item.setItemName(names[i % names.length]);
+            item.setItemPrice(new BigDecimal(prices[i % prices.length]));
+            item.setQuantity(1 + i % 3);
+            items.add(item);
+            subtotal = subtotal.add(item.getItemPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+        }
+        BigDecimal tax = subtotal.multiply(new BigDecimal("0.04712")).setScale(2, RoundingMode.HALF_UP);
+
+        TransactionCreateRequest request = new TransactionCreateRequest();
+        request.setTransactionId("TXN-20261018-000042");
+        request.setReceiptNumber("R-000042");
+        request.setStaffEmployeeId("EMP001");
+        request.setPaymentMethod(paymentMethod);
+        request.setSubtotal(subtotal);
+        request.setTaxAmount(tax);
+        request.setTotalAmount(subtotal.add(tax));
+        if (paymentMethod == Transaction.PaymentMethod.CASH) {
+            request.setCashReceived(new BigDecimal("200.00"));
+        }
+        request.setItems(items);
+        return request;
+    }
+
+    /**
+     * Repository stand-in: finders return the given entity, save returns its argument
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T fake(Class<T> repository, Object found) {
+        return (T) Proxy.newProxyInstance(repository.getClassLoader(), new Class<?>[] { repository },
+            (proxy, method, args) -> {
+                if (method.getName().equals("save")) {
+                    return args[0];
+                }
+                if (method.getName().startsWith("find") && method.getReturnType() == Optional.class) {
+                    return Optional.ofNullable(found);
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+    }
+}
@@ -0,0 +1,151 @@
+package com.aliifishmarket.service;
+
+import com.aliifishmarket.service.UppIntegrationService.UppDeviceRequest;
+import com.aliifishmarket.service.UppIntegrationService.UppPaymentRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and serializing UPP requests: the precompiled serializers against the
+ * previous path (a fresh HashMap of merchant metadata per request, serialized
+ * reflectively by the ObjectMapper). Run with -prof gc to compare allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UppRequestSerializationBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("42.75");
+    private static final String[] CAPABILITIES = { "nfc", "qr", "receipt-printer" };
+
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = new ObjectMapper();
+        // Warm both serializer caches outside the measurement
+        paymentReflective();
+        paymentPrecompiled();
+        deviceReflective();
+        devicePrecompiled();
+    }
+
+    @Benchmark
+    public byte[] paymentReflective() throws Exception {
+        LegacyPaymentRequest request = new LegacyPaymentRequest();
+        request.setAmount(AMOUNT);
+        request.setDeviceType("smartphone");
+        request.setDeviceId("device-7f3a");
+        request.setDescription("Ali'i Fish Market Order #AFM-20261018-0042");
+        request.setCustomerEmail("kai@example.com");
+
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("orderNumber", "AFM-20261018-0042");
+        metadata.put("customerName", "Kai Kealoha");
+        metadata.put("merchant", "Ali'i Fish Market");
+        metadata.put("location", "Honolulu, HI");
+        request.setMetadata(metadata);
+
+        return objectMapper.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public byte[] paymentPrecompiled() throws Exception {
+        UppPaymentRequest request = new UppPaymentRequest();
+        request.setAmount(AMOUNT);
+        request.setDeviceType("smartphone");
+        request.setDeviceId("device-7f3a");
+        request.setDescription("Ali'i Fish Market Order #AFM-20261018-0042");
+        request.setCustomerEmail("kai@example.com");
+        request.setOrderNumber("AFM-20261018-0042");
+        request.setCustomerName("Kai Kealoha");
+
+        return objectMapper.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public byte[] deviceReflective() throws Exception {
+        LegacyDeviceRequest request = new LegacyDeviceRequest();
+        request.setDeviceType("pos-terminal");
+        request.setCapabilities(CAPABILITIES);
+        request.setFingerprint("fp-91c2e0d4");
+
+        Map<String, Object> securityContext = new HashMap<>();
+        securityContext.put("merchant", "Ali'i Fish Market");
+        securityContext.put("staffMemberId", "17");
+        securityContext.put("location", "Honolulu, HI");
+        request.setSecurityContext(securityContext);
+
+        return objectMapper.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public byte[] devicePrecompiled() throws Exception {
+        UppDeviceRequest request = new UppDeviceRequest();
+        request.setDeviceType("pos-terminal");
+        request.setCapabilities(CAPABILITIES);
+        request.setFingerprint("fp-91c2e0d4");
+        request.setStaffMemberId("17");
+
+        return objectMapper.writeValueAsBytes(request);
+    }
+
+    // The request DTOs as they were before the precompiled serializers
+
+    public static class LegacyPaymentRequest {
+        private BigDecimal amount;
+        private String deviceType;
+        private String deviceId;
+        private String description;
+        private String customerEmail;
+        private Map<String, Object> metadata;
+
+        public BigDecimal getAmount() { return amount; }
+        public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+        public String getDeviceType() { return deviceType; }
+        public void setDeviceType(String deviceType) { this.deviceType = deviceType; }
+
+        public String getDeviceId() { return deviceId; }
+        public void setDeviceId(String deviceId) { this.deviceId = deviceId; }
+
+        public String getDescription() { return description; }
+        public void setDescription(String description) { this.description = description; }
+
+        public String getCustomerEmail() { return customerEmail; }
+        public void setCustomerEmail(String customerEmail) { this.customerEmail = customerEmail; }
+
+        public Map<String, Object> getMetadata() { return metadata; }
+        public void setMetadata(Map<String, Object> metadata) { this.metadata = metadata; }
+    }
+
+    public static class LegacyDeviceRequest {
+        private String deviceType;
+        private String[] capabilities;
+        private String fingerprint;
+        private Map<String, Object> securityContext;
+
+        public String getDeviceType() { return deviceType; }
+        public void setDeviceType(String deviceType) { this.deviceType = deviceType; }
+
+        public String[] getCapabilities() { return capabilities; }
+        public void setCapabilities(String[] capabilities) { this.capabilities = capabilities; }
+
+        public String getFingerprint() { return fingerprint; }
+        public void setFingerprint(String fingerprint) { this.fingerprint = fingerprint; }
+
+        public Map<String, Object> getSecurityContext() { return securityContext; }
+        public void setSecurityContext(Map<String, Object> securityContext) { this.securityContext = securityContext; }
+    }
+}
@@ -0,0 +1,56 @@
+package com.aliifishmarket.loadsim;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings bound from the loadsim.* properties (application-loadsim.yml and the command line)
+ */
+public class LoadSimSettings {
+
+    private String database = "h2";
+    private double rate = 40;
+    private Map<String, Integer> mix = new LinkedHashMap<>();
+    private Duration warmup = Duration.ofSeconds(15);
+    private Duration duration = Duration.ofSeconds(60);
+    private int maxConcurrency = 200;
+    private Duration drainTimeout = Duration.ofSeconds(30);
+    private int staff = 8;
+    private int stock = 1_000_000;
+    private long seed = 42;
+    private String resultFile;
+
+    public String getDatabase() { return database; }
+    public void setDatabase(String database) { this.database = database; }
+
+    public double getRate() { return rate; }
+    public void setRate(double rate) { this.rate = rate; }
+
+    public Map<String, Integer> getMix() { return mix; }
+    public void setMix(Map<String, Integer> mix) { this.mix = mix; }
+
+    public Duration getWarmup() { return warmup; }
+    public void setWarmup(Duration warmup) { this.warmup = warmup; }
+
+    public Duration getDuration() { return duration; }
+    public void setDuration(Duration duration) { this.duration = duration; }
+
+    public int getMaxConcurrency() { return maxConcurrency; }
+    public void setMaxConcurrency(int maxConcurrency) { this.maxConcurrency = maxConcurrency; }
+
+    public Duration getDrainTimeout() { return drainTimeout; }
+    public void setDrainTimeout(Duration drainTimeout) { this.drainTimeout = drainTimeout; }
+
+    public int getStaff() { return staff; }
+    public void setStaff(int staff) { this.staff = staff; }
+
+    public int getStock() { return stock; }
+    public void setStock(int stock) { this.stock = stock; }
+
+    public long getSeed() { return seed; }
+    public void setSeed(long seed) { this.seed = seed; }
+
+    public String getResultFile() { return resultFile; }
+    public void setResultFile(String resultFile) { this.resultFile = resultFile; }
+}
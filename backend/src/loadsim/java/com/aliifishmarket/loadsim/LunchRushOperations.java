@@ -0,0 +1,236 @@
+package com.aliifishmarket.loadsim;
+
+import com.aliifishmarket.model.MenuItem;
+import com.aliifishmarket.model.Order;
+import com.aliifishmarket.model.OrderItem;
+import com.aliifishmarket.model.Transaction;
+import com.aliifishmarket.repository.OrderRepository;
+import com.aliifishmarket.service.TransactionService;
+import com.aliifishmarket.service.TransactionService.TransactionCreateRequest;
+import com.aliifishmarket.service.TransactionService.TransactionItemRequest;
+import com.aliifishmarket.service.UppIntegrationService;
+import com.aliifishmarket.service.UppIntegrationService.UppPaymentResponse;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The four lunch-rush operations. HTTP paths go through the embedded server,
+ * so security, serialization and the response caches are exercised; POS sales
+ * and order persistence have no REST endpoint yet and call the services and
+ * repositories directly. Online orders pay through the in-JVM UPP stand-in.
+ */
+class LunchRushOperations {
+
+    private static final BigDecimal TAX_RATE = new BigDecimal("0.04712");
+    private static final Duration HTTP_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration PAYMENT_TIMEOUT = Duration.ofSeconds(30);
+    private static final String[] SEARCHES = { "ahi", "poke", "salm", "spicy", "rice", "kalua", "pog" };
+
+    private final TransactionService transactionService;
+    private final OrderRepository orderRepository;
+    private final UppIntegrationService uppIntegrationService;
+    private final List<MenuItem> menu;
+    private final List<String> staff;
+    private final String baseUrl;
+    private final String authorization;
+    private final ZoneId businessZone;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(2))
+        .build();
+    private final AtomicLong sequence = new AtomicLong();
+
+    LunchRushOperations(ApplicationContext context, List<MenuItem> menu, List<String> staff) {
+        Environment environment = context.getEnvironment();
+        this.transactionService = context.getBean(TransactionService.class);
+        this.orderRepository = context.getBean(OrderRepository.class);
+        this.uppIntegrationService = context.getBean(UppIntegrationService.class);
+        this.menu = menu;
+        this.staff = staff;
+        this.baseUrl = "http://localhost:" + environment.getProperty("local.server.port")
+            + environment.getProperty("server.servlet.context-path", "");
+        String credentials = environment.getProperty("spring.security.user.name") + ":"
+            + environment.getProperty("spring.security.user.password");
+        this.authorization = "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+        this.businessZone = ZoneId.of(environment.getProperty("app.business.timezone", "Pacific/Honolulu"));
+    }
+
+    void register(OpenLoopDriver driver) {
+        driver.add("sale", this::sale);
+        driver.add("order", this::order);
+        driver.add("menu", this::menu);
+        driver.add("summary", this::summary);
+    }
+
+    /**
+     * POS sale at the counter: one to five items, mostly card and NFC
+     */
+    String sale() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = sequence.incrementAndGet();
+        TransactionCreateRequest request = new TransactionCreateRequest();
+        request.setTransactionId("LOADSIM-" + System.currentTimeMillis() + "-" + id);
+        request.setReceiptNumber("LS" + id);
+        request.setStaffEmployeeId(staff.get(random.nextInt(staff.size())));
+        request.setPaymentMethod(salePaymentMethod(random.nextInt(100)));
+
+        List<TransactionItemRequest> items = new ArrayList<>();
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (int i = random.nextInt(1, 6); i > 0; i--) {
+            MenuItem menuItem = menu.get(random.nextInt(menu.size()));
+            TransactionItemRequest item = new TransactionItemRequest();
+            item.setItemName(menuItem.getName());
+            item.setItemPrice(menuItem.getPrice());
+            item.setQuantity(random.nextInt(1, 3));
+            items.add(item);
+            subtotal = subtotal.add(menuItem.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+        }
+        BigDecimal tax = tax(subtotal);
+        BigDecimal total = subtotal.add(tax);
+        request.setItems(items);
+        request.setSubtotal(subtotal);
+        request.setTaxAmount(tax);
+        request.setTotalAmount(total);
+        if (request.getPaymentMethod() == Transaction.PaymentMethod.CASH) {
+            // Customer hands over the next $5 up
+            request.setCashReceived(total.divide(BigDecimal.valueOf(5), 0, RoundingMode.CEILING)
+                .multiply(BigDecimal.valueOf(5)));
+        }
+
+        transactionService.createTransaction(request);
+        return null;
+    }
+
+    /**
+     * Online pickup order: reserve stock, record the order, pay through UPP and
+     * check the payment status the way the order-tracking page does
+     */
+    String order() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = sequence.incrementAndGet();
+        Order order = new Order("Load Sim " + id, "808555" + String.format("%04d", id % 10000), Order.OrderType.PICKUP);
+        order.setCustomerEmail("loadsim+" + id + "@example.com");
+        order.setOrderItems(new ArrayList<>());
+        order.setPaymentMethod(random.nextBoolean() ? Order.PaymentMethod.NFC : Order.PaymentMethod.CARD);
+
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (int i = random.nextInt(1, 4); i > 0; i--) {
+            MenuItem menuItem = menu.get(random.nextInt(menu.size()));
+            int quantity = random.nextInt(1, 3);
+            int status = post("/inventory/" + menuItem.getId() + "/reserve?quantity=" + quantity);
+            if (status != 200) {
+                release(order);
+                return "reserve HTTP " + status;
+            }
+            order.getOrderItems().add(new OrderItem(order, menuItem, quantity));
+            subtotal = subtotal.add(menuItem.getPrice().multiply(BigDecimal.valueOf(quantity)));
+        }
+        BigDecimal tax = tax(subtotal);
+        order.setSubtotal(subtotal);
+        order.setTaxAmount(tax);
+        order.setServiceFee(BigDecimal.ZERO);
+        order.setTotalAmount(subtotal.add(tax));
+        order = orderRepository.save(order);
+
+        UppPaymentResponse payment = uppIntegrationService.processPayment(uppIntegrationService.createPaymentRequest(
+                "smartphone", "loadsim-web", order.getTotalAmount(), order.getOrderNumber(),
+                order.getCustomerEmail(), order.getCustomerName()))
+            .block(PAYMENT_TIMEOUT);
+        if (payment == null || !payment.isSuccess()) {
+            order.setStatus(Order.OrderStatus.CANCELLED);
+            order.setPaymentStatus(Order.PaymentStatus.FAILED);
+            orderRepository.save(order);
+            release(order);
+            return "payment failed";
+        }
+        order.setUppPaymentId(payment.getPaymentId());
+        orderRepository.save(order);
+
+        int status = get("/payments/" + payment.getPaymentId() + "/status", true);
+        return status == 200 ? null : "payment status HTTP " + status;
+    }
+
+    /**
+     * Customer menu browsing: mostly the full menu, some searches and item pages
+     */
+    String menu() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int choice = random.nextInt(100);
+        String path;
+        if (choice < 70) {
+            path = "/menu";
+        } else if (choice < 90) {
+            path = "/menu/search?q=" + SEARCHES[random.nextInt(SEARCHES.length)];
+        } else {
+            path = "/menu/" + menu.get(random.nextInt(menu.size())).getId();
+        }
+        int status = get(path, false);
+        return status == 200 ? null : "HTTP " + status;
+    }
+
+    /**
+     * Dashboard poll of today's running totals
+     */
+    String summary() throws Exception {
+        int status = get("/reports/daily/" + LocalDate.now(businessZone), true);
+        return status == 200 ? null : "HTTP " + status;
+    }
+
+    private void release(Order order) throws Exception {
+        for (OrderItem item : order.getOrderItems()) {
+            post("/inventory/" + item.getMenuItem().getId() + "/release?quantity=" + item.getQuantity());
+        }
+    }
+
+    private int get(String path, boolean authenticated) throws Exception {
+        HttpRequest.Builder request = request(path).GET().header("Accept-Encoding", "gzip");
+        if (authenticated) {
+            request.header("Authorization", authorization);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private int post(String path) throws Exception {
+        HttpRequest request = request(path)
+            .POST(HttpRequest.BodyPublishers.noBody())
+            .header("Authorization", authorization)
+            .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(HTTP_TIMEOUT);
+    }
+
+    private static Transaction.PaymentMethod salePaymentMethod(int percent) {
+        if (percent < 40) {
+            return Transaction.PaymentMethod.CARD;
+        }
+        if (percent < 70) {
+            return Transaction.PaymentMethod.NFC;
+        }
+        if (percent < 90) {
+            return Transaction.PaymentMethod.CASH;
+        }
+        return Transaction.PaymentMethod.QR;
+    }
+
+    private static BigDecimal tax(BigDecimal subtotal) {
+        return subtotal.multiply(TAX_RATE).setScale(2, RoundingMode.HALF_UP);
+    }
+}
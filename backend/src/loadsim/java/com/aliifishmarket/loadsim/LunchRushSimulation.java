@@ -0,0 +1,164 @@
+package com.aliifishmarket.loadsim;
+
+import com.aliifishmarket.AliiFishMarketApplication;
+import com.aliifishmarket.model.MenuItem;
+import com.aliifishmarket.model.Staff;
+import com.aliifishmarket.repository.MenuItemRepository;
+import com.aliifishmarket.repository.StaffRepository;
+import com.aliifishmarket.service.InventoryService;
+import com.aliifishmarket.service.QueryStatistics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lunch-rush load simulation: boots the backend in this JVM with the UPP
+ * stand-in (upp-mock profile) on H2, or on the configured Postgres with
+ * --loadsim.database=postgres, seeds staff and menu data, then drives POS
+ * sales, online orders, menu reads and dashboard polls at the loadsim.rate
+ * and loadsim.mix from application-loadsim.yml. Any loadsim.*, app.* or
+ * spring.* property can be overridden on the command line.
+ *
+ * Prints response-time percentiles and throughput per operation, plus the
+ * slowest repository methods, and writes the same numbers as JSON to
+ * loadsim.result-file.
+ *
+ * Usage: mvn -Pload-sim verify [-Dloadsim.args="--loadsim.rate=80 --loadsim.mix.order=30"]
+ */
+public class LunchRushSimulation {
+
+    public static void main(String[] args) throws Exception {
+        String database = new SimpleCommandLinePropertySource(args).getProperty("loadsim.database");
+        List<String> profiles = new ArrayList<>(List.of("upp-mock", "loadsim"));
+        if (database == null || database.equals("h2")) {
+            profiles.add("loadsim-h2");
+        }
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AliiFishMarketApplication.class)
+            .profiles(profiles.toArray(new String[0]))
+            .run(args);
+        LoadSimSettings settings = Binder.get(context.getEnvironment())
+            .bindOrCreate("loadsim", LoadSimSettings.class);
+
+        List<MenuItem> menu = seedMenu(context.getBean(MenuItemRepository.class),
+            context.getBean(InventoryService.class), settings.getStock());
+        List<String> staff = seedStaff(context.getBean(StaffRepository.class), settings.getStaff());
+        QueryStatistics queryStatistics = context.getBean(QueryStatistics.class);
+
+        OpenLoopDriver driver = new OpenLoopDriver(settings);
+        new LunchRushOperations(context, menu, staff).register(driver);
+        driver.run(queryStatistics::reset);
+
+        double seconds = settings.getDuration().toMillis() / 1000.0;
+        Map<String, OperationStats.Summary> summaries = new LinkedHashMap<>();
+        driver.getStats().forEach((name, stats) -> summaries.put(name, stats.summarize(seconds)));
+        List<QueryStatistics.MethodSummary> slowest = queryStatistics.getSlowest(5);
+        print(settings, summaries, driver.getPeakBacklog(), slowest);
+        write(context.getBean(ObjectMapper.class), settings, summaries, driver.getPeakBacklog());
+
+        System.exit(SpringApplication.exit(context));
+    }
+
+    /**
+     * Seed a small menu into an empty database and top up stock so reservations
+     * never run out mid-run. Only meant for local databases. Stock goes through
+     * InventoryService, whose counters were loaded at startup.
+     */
+    private static List<MenuItem> seedMenu(MenuItemRepository menuItemRepository, InventoryService inventoryService,
+                                           int stock) {
+        if (menuItemRepository.count() == 0) {
+            menuItemRepository.saveAll(List.of(
+                menuItem("Ahi Poke Bowl", "16.95", MenuItem.MenuCategory.POKE_BOWLS),
+                menuItem("Spicy Ahi Bowl", "17.95", MenuItem.MenuCategory.POKE_BOWLS),
+                menuItem("Salmon Poke Bowl", "15.95", MenuItem.MenuCategory.POKE_BOWLS),
+                menuItem("Kalua Pig", "14.95", MenuItem.MenuCategory.PREPARED_FOODS),
+                menuItem("Lomi Lomi Salmon", "8.95", MenuItem.MenuCategory.PREPARED_FOODS),
+                menuItem("White Rice", "3.95", MenuItem.MenuCategory.SIDES),
+                menuItem("Seaweed Salad", "5.95", MenuItem.MenuCategory.SIDES),
+                menuItem("Macaroni Salad", "5.95", MenuItem.MenuCategory.SIDES),
+                menuItem("POG Juice", "3.95", MenuItem.MenuCategory.BEVERAGES),
+                menuItem("Haupia", "4.95", MenuItem.MenuCategory.DESSERTS)));
+        }
+
+        List<MenuItem> menu = new ArrayList<>();
+        for (MenuItem item : menuItemRepository.findAll()) {
+            if (Boolean.TRUE.equals(item.getAvailable())) {
+                inventoryService.setStock(item.getId(), stock);
+                menu.add(item);
+            }
+        }
+        return menu;
+    }
+
+    private static MenuItem menuItem(String name, String price, MenuItem.MenuCategory category) {
+        MenuItem item = new MenuItem(name, name, new BigDecimal(price), category);
+        item.setAvailable(true);
+        item.setMinimumStock(5);
+        return item;
+    }
+
+    private static List<String> seedStaff(StaffRepository staffRepository, int count) {
+        List<String> employeeIds = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            String employeeId = "LOADSIM-" + i;
+            if (staffRepository.findByEmployeeId(employeeId).isEmpty()) {
+                Staff staff = new Staff(employeeId, "Load", "Sim " + i, "loadsim" + i + "@example.com",
+                    Staff.StaffRole.CASHIER);
+                staff.setHireDate(LocalDate.now());
+                staffRepository.save(staff);
+            }
+            employeeIds.add(employeeId);
+        }
+        return employeeIds;
+    }
+
+    private static void print(LoadSimSettings settings, Map<String, OperationStats.Summary> summaries,
+                              int peakBacklog, List<QueryStatistics.MethodSummary> slowest) {
+        System.out.println();
+        System.out.printf("Lunch rush on %s: %.1f arrivals/s for %ds after %ds warm-up, mix %s, peak backlog %d%n",
+            settings.getDatabase(), settings.getRate(), settings.getDuration().toSeconds(),
+            settings.getWarmup().toSeconds(), settings.getMix(), peakBacklog);
+        System.out.printf("%-8s %8s %7s %8s %9s %9s %9s %9s %9s %12s%n", "", "count", "failed", "ops/s",
+            "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99 ms");
+        summaries.forEach((name, summary) -> {
+            Map<String, Double> response = summary.getResponseMs();
+            System.out.printf("%-8s %8d %7d %8.1f %9.1f %9.1f %9.1f %9.1f %9.1f %12.1f%n", name, summary.getCount(),
+                summary.getFailed(), summary.getThroughputPerSecond(), response.get("p50"), response.get("p90"),
+                response.get("p99"), response.get("p99.9"), response.get("max"), summary.getServiceMs().get("p99"));
+        });
+        summaries.forEach((name, summary) -> summary.getFailures().forEach((failure, count) ->
+            System.out.printf("  %s failed %d x %s%n", name, count, failure)));
+
+        System.out.println("Slowest repository methods:");
+        for (QueryStatistics.MethodSummary method : slowest) {
+            System.out.printf("  %-60s %8d calls %9.2f ms mean %9.1f ms max%n", method.getMethod(),
+                method.getCalls(), method.getMeanMs(), method.getMaxMs());
+        }
+    }
+
+    private static void write(ObjectMapper objectMapper, LoadSimSettings settings,
+                              Map<String, OperationStats.Summary> summaries, int peakBacklog) throws Exception {
+        if (settings.getResultFile() == null) {
+            return;
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("settings", settings);
+        result.put("peakBacklog", peakBacklog);
+        result.put("operations", summaries);
+        File file = new File(settings.getResultFile());
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file, result);
+        System.out.println("Results written to " + file);
+    }
+}
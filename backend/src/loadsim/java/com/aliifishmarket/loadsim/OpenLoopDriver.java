@@ -0,0 +1,167 @@
+package com.aliifishmarket.loadsim;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Exceptions;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load: arrivals follow a Poisson process at the configured rate,
+ * independent of how fast the backend answers, the way customers and tills do
+ * at lunch. Each arrival picks an operation by the mix weights and is handed
+ * to a worker pool; when the pool is busy arrivals queue, and their latency is
+ * measured from the scheduled arrival time rather than from when they started,
+ * so a stalled backend shows up in the percentiles instead of slowing the load.
+ *
+ * Arrivals during the warm-up run but are not recorded; onMeasureStart runs
+ * once the first measured arrival is due.
+ */
+class OpenLoopDriver {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpenLoopDriver.class);
+
+    /**
+     * One operation of the mix; returns null on success or a short failure label
+     */
+    @FunctionalInterface
+    interface Operation {
+        String run() throws Exception;
+    }
+
+    private final LoadSimSettings settings;
+    private final List<String> names = new ArrayList<>();
+    private final List<Operation> operations = new ArrayList<>();
+    private final Map<String, OperationStats> stats = new LinkedHashMap<>();
+    private final AtomicInteger peakBacklog = new AtomicInteger();
+    private volatile boolean recording = true;
+    private double[] cumulativeWeights;
+
+    OpenLoopDriver(LoadSimSettings settings) {
+        this.settings = settings;
+    }
+
+    void add(String name, Operation operation) {
+        names.add(name);
+        operations.add(operation);
+        stats.put(name, new OperationStats(name));
+    }
+
+    Map<String, OperationStats> getStats() {
+        return stats;
+    }
+
+    int getPeakBacklog() {
+        return peakBacklog.get();
+    }
+
+    void run(Runnable onMeasureStart) throws InterruptedException {
+        cumulativeWeights = cumulativeWeights();
+        SplittableRandom random = new SplittableRandom(settings.getSeed());
+        AtomicInteger workerCount = new AtomicInteger();
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(settings.getMaxConcurrency(), settings.getMaxConcurrency(),
+            60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "loadsim-" + workerCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+        double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / settings.getRate();
+        long start = System.nanoTime();
+        long measureStart = start + settings.getWarmup().toNanos();
+        long end = measureStart + settings.getDuration().toNanos();
+        long nextProgress = measureStart;
+        boolean measuring = false;
+        long arrival = start;
+
+        logger.info("Warming up for {}s", settings.getWarmup().toSeconds());
+        while (true) {
+            // Exponential gaps between arrivals give a Poisson process
+            arrival += (long) (-Math.log(1 - random.nextDouble()) * meanGapNanos);
+            if (arrival >= end) {
+                break;
+            }
+            long wait = arrival - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!measuring && arrival >= measureStart) {
+                measuring = true;
+                onMeasureStart.run();
+            }
+            if (arrival >= nextProgress) {
+                logger.info("{}s measured, backlog {}", TimeUnit.NANOSECONDS.toSeconds(arrival - measureStart),
+                    workers.getQueue().size());
+                nextProgress += TimeUnit.SECONDS.toNanos(10);
+            }
+
+            int index = pick(random.nextDouble());
+            long scheduled = arrival;
+            boolean measured = scheduled >= measureStart;
+            workers.execute(() -> execute(index, scheduled, measured));
+            peakBacklog.accumulateAndGet(workers.getQueue().size(), Math::max);
+        }
+
+        workers.shutdown();
+        if (!workers.awaitTermination(settings.getDrainTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            logger.warn("{} operations still running after {}s drain timeout; they are not counted",
+                workers.getActiveCount() + workers.getQueue().size(), settings.getDrainTimeout().toSeconds());
+            recording = false;
+            workers.shutdownNow();
+        }
+    }
+
+    private void execute(int index, long scheduled, boolean measured) {
+        long started = System.nanoTime();
+        String failure;
+        try {
+            failure = operations.get(index).run();
+        } catch (Exception e) {
+            // Reactor wraps checked exceptions from block()
+            failure = Exceptions.unwrap(e).getClass().getSimpleName();
+        }
+        if (measured && recording) {
+            long finished = System.nanoTime();
+            stats.get(names.get(index)).record(finished - scheduled, finished - started, failure);
+        }
+    }
+
+    private int pick(double value) {
+        for (int i = 0; i < cumulativeWeights.length - 1; i++) {
+            if (value < cumulativeWeights[i]) {
+                return i;
+            }
+        }
+        return cumulativeWeights.length - 1;
+    }
+
+    private double[] cumulativeWeights() {
+        double total = 0;
+        for (String name : names) {
+            total += weight(name);
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("loadsim.mix has no positive weights");
+        }
+        double[] cumulative = new double[names.size()];
+        double sum = 0;
+        for (int i = 0; i < names.size(); i++) {
+            sum += weight(names.get(i));
+            cumulative[i] = sum / total;
+        }
+        return cumulative;
+    }
+
+    private int weight(String name) {
+        return Math.max(0, settings.getMix().getOrDefault(name, 0));
+    }
+}
@@ -0,0 +1,94 @@
+package com.aliifishmarket.loadsim;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and failures of one operation during the measured window.
+ *
+ * Response time runs from the arrival's scheduled time, so time spent queued
+ * behind a saturated backend is counted; service time runs from when a worker
+ * picked the arrival up. Both are recorded in microseconds.
+ */
+class OperationStats {
+
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+    private static final String[] PERCENTILE_LABELS = { "p50", "p90", "p99", "p99.9" };
+
+    private final String name;
+    private final Recorder responseTimes = new Recorder(3);
+    private final Recorder serviceTimes = new Recorder(3);
+    private final LongAdder failed = new LongAdder();
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+    OperationStats(String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    void record(long responseNanos, long serviceNanos, String failure) {
+        responseTimes.recordValue(Math.max(1, responseNanos / 1000));
+        serviceTimes.recordValue(Math.max(1, serviceNanos / 1000));
+        if (failure != null) {
+            failed.increment();
+            failures.computeIfAbsent(failure, f -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Everything recorded so far, in a form the report and the JSON result share
+     */
+    Summary summarize(double seconds) {
+        Histogram response = responseTimes.getIntervalHistogram();
+        Histogram service = serviceTimes.getIntervalHistogram();
+        Map<String, Long> failureCounts = new TreeMap<>();
+        failures.forEach((failure, count) -> failureCounts.put(failure, count.sum()));
+        return new Summary(response.getTotalCount(), failed.sum(), response.getTotalCount() / seconds,
+            percentiles(response), percentiles(service), failureCounts);
+    }
+
+    private static Map<String, Double> percentiles(Histogram histogram) {
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            percentiles.put(PERCENTILE_LABELS[i], histogram.getValueAtPercentile(PERCENTILES[i]) / 1000.0);
+        }
+        percentiles.put("max", histogram.getMaxValue() / 1000.0);
+        percentiles.put("mean", histogram.getMean() / 1000.0);
+        return percentiles;
+    }
+
+    public static class Summary {
+        private final long count;
+        private final long failed;
+        private final double throughputPerSecond;
+        private final Map<String, Double> responseMs;
+        private final Map<String, Double> serviceMs;
+        private final Map<String, Long> failures;
+
+        Summary(long count, long failed, double throughputPerSecond, Map<String, Double> responseMs,
+                Map<String, Double> serviceMs, Map<String, Long> failures) {
+            this.count = count;
+            this.failed = failed;
+            this.throughputPerSecond = throughputPerSecond;
+            this.responseMs = responseMs;
+            this.serviceMs = serviceMs;
+            this.failures = failures;
+        }
+
+        public long getCount() { return count; }
+        public long getFailed() { return failed; }
+        public double getThroughputPerSecond() { return throughputPerSecond; }
+        public Map<String, Double> getResponseMs() { return responseMs; }
+        public Map<String, Double> getServiceMs() { return serviceMs; }
+        public Map<String, Long> getFailures() { return failures; }
+    }
+}
@@ -0,0 +1,26 @@
+package com.aliifishmarket.actuator;
+
+import com.aliifishmarket.service.LowStockMonitor;
+import com.aliifishmarket.service.LowStockMonitor.LowStockItem;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Actuator view of items currently below their minimum stock
+ */
+@Component
+@Endpoint(id = "lowstock")
+public class LowStockEndpoint {
+
+    @Autowired
+    private LowStockMonitor lowStockMonitor;
+
+    @ReadOperation
+    public List<LowStockItem> lowStock() {
+        return lowStockMonitor.getLowStockItems();
+    }
+}
@@ -0,0 +1,44 @@
+package com.aliifishmarket.actuator;
+
+import com.aliifishmarket.service.QueryStatistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator view of the slowest and chattiest repository methods since startup
+ * (or the last reset), plus statements issued outside repository calls
+ */
+@Component
+@Endpoint(id = "queries")
+public class QueriesEndpoint {
+
+    @Autowired
+    private QueryStatistics queryStatistics;
+
+    @Value("${app.query-statistics.top:10}")
+    private int defaultLimit;
+
+    @ReadOperation
+    public Map<String, Object> queries(@Nullable Integer limit) {
+        // A negative limit would make subList throw and the endpoint return 500
+        int top = Math.max(0, limit != null ? limit : defaultLimit);
+        Map<String, Object> queries = new LinkedHashMap<>();
+        queries.put("slowest", queryStatistics.getSlowest(top));
+        queries.put("chattiest", queryStatistics.getChattiest(top));
+        queries.put("unattributed", queryStatistics.getUnattributed());
+        return queries;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        queryStatistics.reset();
+    }
+}
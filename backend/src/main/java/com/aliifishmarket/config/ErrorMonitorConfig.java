@@ -6,6 +6,8 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.beans.factory.annotation.Value;
 
+import java.time.Duration;
+
 @Configuration
 public class ErrorMonitorConfig {
 
@@ -18,11 +20,20 @@ public class ErrorMonitorConfig {
     @Value("${app.error-monitor.api-key:}")
     private String errorMonitorApiKey;
 
+    @Value("${app.error-monitor.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${app.error-monitor.read-timeout-ms:5000}")
+    private long readTimeoutMs;
+
     @Bean
     public RestTemplate errorMonitorRestTemplate() {
         return new RestTemplateBuilder()
             .rootUri(errorMonitorEndpoint)
             .defaultHeader("X-API-Key", errorMonitorApiKey)
+            // A slow monitor must not stall the report dispatcher threads
+            .setConnectTimeout(Duration.ofMillis(connectTimeoutMs))
+            .setReadTimeout(Duration.ofMillis(readTimeoutMs))
             .build();
     }
 
@@ -0,0 +1,85 @@
+package com.aliifishmarket.config;
+
+import com.aliifishmarket.service.QueryStatistics;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wires QueryStatistics into Hibernate and every Spring Data repository: a
+ * StatementInspector reports each prepared statement, and an interceptor on the
+ * repository proxies scopes each call to its "Repository.method" name.
+ */
+@Configuration
+public class QueryStatisticsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryStatisticsInspector(QueryStatistics queryStatistics) {
+        StatementInspector inspector = sql -> {
+            queryStatistics.onStatement(sql);
+            return sql;
+        };
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+
+    // Static, and QueryStatistics looked up lazily, so post-processing repositories
+    // doesn't initialise anything early
+    @Bean
+    public static BeanPostProcessor queryStatisticsRepositoryInterceptor(ObjectProvider<QueryStatistics> queryStatistics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                        (proxyFactory, repository) -> proxyFactory.addAdvice(new RepositoryMethodInterceptor(
+                            repository.getRepositoryInterface().getSimpleName(), queryStatistics))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static final class RepositoryMethodInterceptor implements MethodInterceptor {
+        private final String repository;
+        private final ObjectProvider<QueryStatistics> queryStatisticsProvider;
+        private final Map<Method, String> names = new ConcurrentHashMap<>();
+        private volatile QueryStatistics queryStatistics;
+
+        RepositoryMethodInterceptor(String repository, ObjectProvider<QueryStatistics> queryStatisticsProvider) {
+            this.repository = repository;
+            this.queryStatisticsProvider = queryStatisticsProvider;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            QueryStatistics statistics = queryStatistics;
+            if (statistics == null) {
+                statistics = queryStatistics = queryStatisticsProvider.getObject();
+            }
+            QueryStatistics.Scope scope = statistics.begin(
+                names.computeIfAbsent(invocation.getMethod(), method -> repository + "." + method.getName()));
+            if (scope == null) {
+                return invocation.proceed();
+            }
+
+            Object result = null;
+            try {
+                result = invocation.proceed();
+                return result;
+            } finally {
+                statistics.end(scope, result);
+            }
+        }
+    }
+}
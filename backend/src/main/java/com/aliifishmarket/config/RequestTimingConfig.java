@@ -0,0 +1,340 @@
+package com.aliifishmarket.config;
+
+import com.aliifishmarket.service.RequestTiming;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Wires RequestTiming into request handling: a filter opens the timings and adds
+ * the Server-Timing header, the DataSource is wrapped to time connection waits
+ * and statement execution, and the Jackson converter times reading and writing
+ * bodies.
+ */
+@Configuration
+public class RequestTimingConfig {
+
+    private static final String SERVER_TIMING = "Server-Timing";
+
+    @Bean
+    public FilterRegistrationBean<RequestTimingFilter> requestTimingFilter(RequestTiming requestTiming) {
+        FilterRegistrationBean<RequestTimingFilter> registration =
+            new FilterRegistrationBean<>(new RequestTimingFilter(requestTiming));
+        // Outside the security chain, so authentication is part of the timed request
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    // Replaces Boot's default converter; the ObjectMapper is still Boot's
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                   RequestTiming requestTiming) {
+        return new TimedJacksonConverter(objectMapper, requestTiming);
+    }
+
+    // Static, and RequestTiming looked up lazily, like the query statistics interceptor
+    @Bean
+    public static BeanPostProcessor requestTimingDataSource(ObjectProvider<RequestTiming> requestTiming) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof TimedDataSource)) {
+                    return new TimedDataSource(dataSource, requestTiming);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Binds the request's timings to the handling thread, including the async
+     * dispatch that writes a Mono result, and logs slow requests at the end
+     */
+    static final class RequestTimingFilter extends OncePerRequestFilter {
+        private static final String TIMINGS_ATTRIBUTE = RequestTimingFilter.class.getName() + ".timings";
+
+        private final RequestTiming requestTiming;
+
+        RequestTimingFilter(RequestTiming requestTiming) {
+            this.requestTiming = requestTiming;
+        }
+
+        @Override
+        protected boolean shouldNotFilterAsyncDispatch() {
+            return false;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            RequestTiming.Timings timings = isAsyncDispatch(request)
+                ? (RequestTiming.Timings) request.getAttribute(TIMINGS_ATTRIBUTE)
+                : requestTiming.start();
+            if (timings == null) {
+                chain.doFilter(request, response);
+                return;
+            }
+            request.setAttribute(TIMINGS_ATTRIBUTE, timings);
+
+            ServerTimingResponse timedResponse = requestTiming.isHeaderEnabled()
+                ? new ServerTimingResponse(response, requestTiming, timings) : null;
+            requestTiming.attach(timings);
+            try {
+                chain.doFilter(request, timedResponse != null ? timedResponse : response);
+            } finally {
+                requestTiming.detach();
+                if (!request.isAsyncStarted()) {
+                    if (timedResponse != null) {
+                        // Responses without a body never asked for the output stream
+                        timedResponse.addServerTiming();
+                    }
+                    requestTiming.complete(timings, request.getMethod(), request.getRequestURI(), response.getStatus());
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds Server-Timing just before the response starts, with the time recorded
+     * up to then; encoding the body itself is only in the slow-request log
+     */
+    static final class ServerTimingResponse extends HttpServletResponseWrapper {
+        private final RequestTiming requestTiming;
+        private final RequestTiming.Timings timings;
+
+        ServerTimingResponse(HttpServletResponse response, RequestTiming requestTiming, RequestTiming.Timings timings) {
+            super(response);
+            this.requestTiming = requestTiming;
+            this.timings = timings;
+        }
+
+        void addServerTiming() {
+            if (!isCommitted() && timings.markHeaderWritten()) {
+                setHeader(SERVER_TIMING, requestTiming.serverTiming(timings));
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addServerTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addServerTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addServerTiming();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addServerTiming();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addServerTiming();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addServerTiming();
+            super.sendRedirect(location);
+        }
+    }
+
+    static final class TimedJacksonConverter extends MappingJackson2HttpMessageConverter {
+        private final RequestTiming requestTiming;
+
+        TimedJacksonConverter(ObjectMapper objectMapper, RequestTiming requestTiming) {
+            super(objectMapper);
+            this.requestTiming = requestTiming;
+        }
+
+        @Override
+        public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage)
+                throws IOException, HttpMessageNotReadableException {
+            long start = System.nanoTime();
+            try {
+                return super.read(type, contextClass, inputMessage);
+            } finally {
+                requestTiming.record(RequestTiming.Phase.JSON, start);
+            }
+        }
+
+        @Override
+        protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage)
+                throws IOException, HttpMessageNotReadableException {
+            long start = System.nanoTime();
+            try {
+                return super.readInternal(clazz, inputMessage);
+            } finally {
+                requestTiming.record(RequestTiming.Phase.JSON, start);
+            }
+        }
+
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                throws IOException, HttpMessageNotWritableException {
+            long start = System.nanoTime();
+            try {
+                super.writeInternal(object, type, outputMessage);
+            } finally {
+                requestTiming.record(RequestTiming.Phase.JSON, start);
+            }
+        }
+    }
+
+    /**
+     * Times getConnection as pool wait and, for connections taken during a request,
+     * every execute* call on their statements. Outside requests connections are
+     * returned unwrapped. Extends DelegatingDataSource so Boot's pool metrics and
+     * health still find the Hikari pool underneath.
+     */
+    static final class TimedDataSource extends DelegatingDataSource {
+        private final ObjectProvider<RequestTiming> requestTimingProvider;
+        private volatile RequestTiming requestTiming;
+
+        TimedDataSource(DataSource target, ObjectProvider<RequestTiming> requestTimingProvider) {
+            super(target);
+            this.requestTimingProvider = requestTimingProvider;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            RequestTiming timing = requestTiming();
+            long start = System.nanoTime();
+            Connection connection = super.getConnection();
+            return timed(timing, connection, start);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            RequestTiming timing = requestTiming();
+            long start = System.nanoTime();
+            Connection connection = super.getConnection(username, password);
+            return timed(timing, connection, start);
+        }
+
+        private RequestTiming requestTiming() {
+            RequestTiming timing = requestTiming;
+            if (timing == null) {
+                timing = requestTiming = requestTimingProvider.getObject();
+            }
+            return timing;
+        }
+
+        private static Connection timed(RequestTiming timing, Connection connection, long start) {
+            if (timing.current() == null) {
+                return connection;
+            }
+            timing.record(RequestTiming.Phase.DB_POOL, start);
+            return (Connection) Proxy.newProxyInstance(TimedDataSource.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, new ConnectionHandler(connection, timing));
+        }
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+        private final RequestTiming requestTiming;
+
+        ConnectionHandler(Connection target, RequestTiming requestTiming) {
+            this.target = target;
+            this.requestTiming = requestTiming;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("equals")) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            Object result = invokeTarget(target, method, args);
+            if (result instanceof Statement statement) {
+                Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                    : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                return Proxy.newProxyInstance(TimedDataSource.class.getClassLoader(), new Class<?>[] { type },
+                    new StatementHandler(statement, requestTiming));
+            }
+            return result;
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final RequestTiming requestTiming;
+
+        StatementHandler(Statement target, RequestTiming requestTiming) {
+            this.target = target;
+            this.requestTiming = requestTiming;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("equals")) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            if (!method.getName().startsWith("execute")) {
+                return invokeTarget(target, method, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return invokeTarget(target, method, args);
+            } finally {
+                requestTiming.record(RequestTiming.Phase.DB, start);
+            }
+        }
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.aliifishmarket.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.SecurityFilterChain;
+
+@Configuration
+public class SecurityConfig {
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+        http
+            .authorizeHttpRequests(auth -> auth
+                // Public customer menu
+                .requestMatchers(HttpMethod.GET, "/menu", "/menu/**").permitAll()
+                // UPP webhooks carry an HMAC signature instead of credentials
+                .requestMatchers(HttpMethod.POST, "/upp/webhooks").permitAll()
+                .anyRequest().authenticated())
+            // Stateless REST API authenticated per request
+            .csrf(csrf -> csrf.disable())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .httpBasic(Customizer.withDefaults());
+        return http.build();
+    }
+}
@@ -0,0 +1,76 @@
+package com.aliifishmarket.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * HTTP client for the Universal Payment Protocol service.
+ *
+ * Uses a dedicated, bounded Reactor Netty pool so a slow UPP cannot exhaust
+ * connections or queue callers forever: acquisitions beyond the pending limit
+ * fail fast, and every connection has connect and response timeouts. Pool
+ * metrics are published under reactor.netty.connection.provider.*{name=upp}.
+ */
+@Configuration
+public class UppClientConfig {
+
+    @Value("${app.upp.api-url}")
+    private String uppApiUrl;
+
+    @Value("${app.upp.client.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${app.upp.client.pending-acquire-max:100}")
+    private int pendingAcquireMax;
+
+    @Value("${app.upp.client.pending-acquire-timeout-ms:2000}")
+    private long pendingAcquireTimeoutMs;
+
+    @Value("${app.upp.client.max-idle-time-ms:30000}")
+    private long maxIdleTimeMs;
+
+    @Value("${app.upp.client.max-life-time-ms:300000}")
+    private long maxLifeTimeMs;
+
+    @Value("${app.upp.client.connect-timeout-ms:2000}")
+    private int connectTimeoutMs;
+
+    @Value("${app.upp.client.response-timeout-ms:15000}")
+    private long responseTimeoutMs;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider uppConnectionProvider() {
+        return ConnectionProvider.builder("upp")
+            .maxConnections(maxConnections)
+            .pendingAcquireMaxCount(pendingAcquireMax)
+            .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+            .maxIdleTime(Duration.ofMillis(maxIdleTimeMs))
+            .maxLifeTime(Duration.ofMillis(maxLifeTimeMs))
+            .evictInBackground(Duration.ofMillis(maxIdleTimeMs))
+            .metrics(true)
+            .build();
+    }
+
+    @Bean
+    public WebClient uppWebClient(WebClient.Builder builder, ConnectionProvider uppConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(uppConnectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+            .responseTimeout(Duration.ofMillis(responseTimeoutMs));
+
+        return builder
+            .baseUrl(uppApiUrl)
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.aliifishmarket.controller;
+
+import com.aliifishmarket.service.UppDeviceRegistryService;
+import com.aliifishmarket.service.UppDeviceRegistryService.DeviceRegistrationRequest;
+import com.aliifishmarket.service.UppIntegrationService.UppDeviceResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+
+/**
+ * Staff device registration with UPP, served from the device registry when possible.
+ * The device is registered to the authenticated user, never to a staff member
+ * named in the request body.
+ */
+@RestController
+@RequestMapping("/devices")
+public class DeviceController {
+
+    @Autowired
+    private UppDeviceRegistryService deviceRegistryService;
+
+    @PostMapping("/register")
+    public Mono<ResponseEntity<UppDeviceResponse>> register(@RequestBody DeviceRegistrationRequest request,
+                                                            Principal principal) {
+        request.setStaffMemberId(principal.getName());
+        if (isBlank(request.getFingerprint()) || isBlank(request.getDeviceType())) {
+            UppDeviceResponse response = new UppDeviceResponse();
+            response.setSuccess(false);
+            response.setError("deviceType and fingerprint are required");
+            return Mono.just(ResponseEntity.badRequest().body(response));
+        }
+
+        return deviceRegistryService.register(request)
+            .map(response -> response.isSuccess()
+                ? ResponseEntity.ok(response)
+                : ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(response));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,73 @@
+package com.aliifishmarket.controller;
+
+import com.aliifishmarket.service.InventoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Staff inventory operations backed by the in-memory stock counters
+ */
+@RestController
+@RequestMapping("/inventory")
+public class InventoryController {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @GetMapping("/{menuItemId}")
+    public ResponseEntity<Map<String, Object>> getStock(@PathVariable Long menuItemId) {
+        return ResponseEntity.ok(stockResponse(menuItemId));
+    }
+
+    @PostMapping("/{menuItemId}/reserve")
+    public ResponseEntity<Map<String, Object>> reserve(@PathVariable Long menuItemId,
+                                                       @RequestParam(defaultValue = "1") int quantity) {
+        inventoryService.reserve(menuItemId, quantity);
+        return ResponseEntity.ok(stockResponse(menuItemId));
+    }
+
+    @PostMapping("/{menuItemId}/release")
+    public ResponseEntity<Map<String, Object>> release(@PathVariable Long menuItemId,
+                                                       @RequestParam(defaultValue = "1") int quantity) {
+        inventoryService.release(menuItemId, quantity);
+        return ResponseEntity.ok(stockResponse(menuItemId));
+    }
+
+    @PostMapping("/{menuItemId}/restock")
+    public ResponseEntity<Map<String, Object>> restock(@PathVariable Long menuItemId,
+                                                       @RequestParam int quantity) {
+        inventoryService.restock(menuItemId, quantity);
+        return ResponseEntity.ok(stockResponse(menuItemId));
+    }
+
+    @PutMapping("/{menuItemId}/stock")
+    public ResponseEntity<Map<String, Object>> setStock(@PathVariable Long menuItemId,
+                                                        @RequestParam int stock) {
+        if (stock < 0) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("error", "stock must not be negative");
+            return ResponseEntity.badRequest().body(response);
+        }
+        inventoryService.setStock(menuItemId, stock);
+        return ResponseEntity.ok(stockResponse(menuItemId));
+    }
+
+    private Map<String, Object> stockResponse(Long menuItemId) {
+        Integer available = inventoryService.getAvailableStock(menuItemId);
+        Map<String, Object> response = new HashMap<>();
+        response.put("menuItemId", menuItemId);
+        response.put("tracked", available != null);
+        response.put("available", available);
+        return response;
+    }
+}
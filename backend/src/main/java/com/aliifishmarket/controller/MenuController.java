@@ -0,0 +1,126 @@
+package com.aliifishmarket.controller;
+
+import com.aliifishmarket.model.MenuItem;
+import com.aliifishmarket.service.MenuFilterIndex;
+import com.aliifishmarket.service.MenuFilterIndex.FilterResult;
+import com.aliifishmarket.service.MenuFilterIndex.MenuFilter;
+import com.aliifishmarket.service.MenuSearchIndex;
+import com.aliifishmarket.service.MenuSearchIndex.SearchHit;
+import com.aliifishmarket.service.MenuSearchIndex.SearchResult;
+import com.aliifishmarket.service.MenuSnapshotService;
+import com.aliifishmarket.service.MenuSnapshotService.MenuItemView;
+import com.aliifishmarket.service.MenuSnapshotService.MenuSnapshot;
+import com.aliifishmarket.service.ResponseBodyCache;
+import com.aliifishmarket.service.ResponseBodyCache.CachedBody;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+/**
+ * Customer-facing menu reads, served from the in-memory menu snapshot.
+ * Every response carries a strong ETag derived from the snapshot version, so clients
+ * revalidating with If-None-Match get a 304 until the menu changes.
+ */
+@RestController
+@RequestMapping("/menu")
+public class MenuController {
+
+    @Autowired
+    private MenuSnapshotService menuSnapshotService;
+
+    @Autowired
+    private MenuFilterIndex menuFilterIndex;
+
+    @Autowired
+    private MenuSearchIndex menuSearchIndex;
+
+    @Autowired
+    private ResponseBodyCache responseBodyCache;
+
+    /**
+     * Full menu, or the subset matching the given filters. Multi-valued category and
+     * spicyLevel match any of the values; tag requires all of them; excludeAllergen
+     * removes items containing any of them.
+     */
+    @GetMapping
+    public ResponseEntity<?> getMenu(
+            @RequestParam(required = false) List<MenuItem.MenuCategory> category,
+            @RequestParam(required = false) List<MenuItem.SpicyLevel> spicyLevel,
+            @RequestParam(required = false) List<String> tag,
+            @RequestParam(required = false) List<String> excludeAllergen,
+            @RequestParam(required = false) Boolean popular,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request) {
+        MenuFilter filter = new MenuFilter()
+            .categories(category)
+            .spicyLevels(spicyLevel)
+            .tags(tag)
+            .excludeAllergens(excludeAllergen)
+            .popular(popular)
+            .inStock(inStock);
+
+        if (!filter.isEmpty()) {
+            FilterResult result = menuFilterIndex.filter(filter);
+            if (request.checkNotModified(result.getETag())) {
+                return null;
+            }
+
+            return ResponseEntity.ok()
+                .eTag(result.getETag())
+                .cacheControl(CacheControl.noCache())
+                .body(result.getItems());
+        }
+
+        // The full menu is the hottest payload: serve stored bytes, 304s included
+        MenuSnapshot snapshot = menuSnapshotService.getSnapshot();
+        CachedBody body = responseBodyCache.get("menu", snapshot.getVersion(), snapshot::getItems);
+        return responseBodyCache.toResponse(body, acceptEncoding, CacheControl.noCache());
+    }
+
+    /**
+     * Search-as-you-type over item names, tags and descriptions, best matches first
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<SearchHit>> search(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit,
+            WebRequest request) {
+        SearchResult result = menuSearchIndex.search(query, Math.min(limit, 50));
+        if (request.checkNotModified(result.getETag())) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+            .eTag(result.getETag())
+            .cacheControl(CacheControl.noCache())
+            .body(result.getHits());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<MenuItemView> getMenuItem(@PathVariable Long id, WebRequest request) {
+        MenuSnapshot snapshot = menuSnapshotService.getSnapshot();
+        MenuItemView item = snapshot.getItem(id);
+        if (item == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(snapshot.getETag())) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+            .eTag(snapshot.getETag())
+            .cacheControl(CacheControl.noCache())
+            .body(item);
+    }
+}
@@ -0,0 +1,29 @@
+package com.aliifishmarket.controller;
+
+import com.aliifishmarket.service.PaymentStatusRegistry;
+import com.aliifishmarket.service.UppIntegrationService.UppPaymentStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * UPP payment status for counter screens, served from the status registry
+ */
+@RestController
+@RequestMapping("/payments")
+public class PaymentController {
+
+    @Autowired
+    private PaymentStatusRegistry paymentStatusRegistry;
+
+    @GetMapping("/{paymentId}/status")
+    public Mono<ResponseEntity<UppPaymentStatus>> getPaymentStatus(@PathVariable String paymentId) {
+        return paymentStatusRegistry.getStatus(paymentId)
+            .map(ResponseEntity::ok)
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
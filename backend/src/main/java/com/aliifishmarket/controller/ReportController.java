@@ -0,0 +1,93 @@
+package com.aliifishmarket.controller;
+
+import com.aliifishmarket.service.PaymentReconciliationService;
+import com.aliifishmarket.service.PaymentReconciliationService.ReconciliationReport;
+import com.aliifishmarket.service.ResponseBodyCache;
+import com.aliifishmarket.service.ResponseBodyCache.CachedBody;
+import com.aliifishmarket.service.TransactionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Sales reports. Reports that only cover closed business days rarely change, so
+ * they are rendered once per data version (row count and last update of the
+ * range's transactions) and served from the response body cache, with clients
+ * revalidating every time; reports that include today are computed per request.
+ */
+@RestController
+@RequestMapping("/reports")
+public class ReportController {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private ResponseBodyCache responseBodyCache;
+
+    @Autowired
+    private PaymentReconciliationService paymentReconciliationService;
+
+    @Value("${app.business.timezone:Pacific/Honolulu}")
+    private String businessTimezone;
+
+    @GetMapping("/daily/{date}")
+    public ResponseEntity<?> getDailySummary(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (!isClosed(date)) {
+            return ResponseEntity.ok(transactionService.getDailySummary(date));
+        }
+
+        String version = "daily-" + date + "-" + transactionService.getReportVersion(date, date);
+        CachedBody body = responseBodyCache.get("report:daily-" + date, version,
+            () -> transactionService.getDailySummary(date));
+        return responseBodyCache.toResponse(body, acceptEncoding, closedDayCacheControl());
+    }
+
+    @GetMapping("/sales")
+    public ResponseEntity<?> getDailySalesSummary(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (!isClosed(endDate)) {
+            return ResponseEntity.ok(transactionService.getDailySalesSummary(startDate, endDate));
+        }
+
+        String range = startDate + "-" + endDate;
+        String version = "sales-" + range + "-" + transactionService.getReportVersion(startDate, endDate);
+        CachedBody body = responseBodyCache.get("report:sales-" + range, version,
+            () -> transactionService.getDailySalesSummary(startDate, endDate));
+        return responseBodyCache.toResponse(body, acceptEncoding, closedDayCacheControl());
+    }
+
+    /**
+     * Cross-check a day's UPP payments against local orders and transactions
+     */
+    @GetMapping("/reconciliation/{date}")
+    public ResponseEntity<ReconciliationReport> reconcile(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(paymentReconciliationService.reconcile(date));
+    }
+
+    private boolean isClosed(LocalDate date) {
+        return date.isBefore(LocalDate.now(ZoneId.of(businessTimezone)));
+    }
+
+    // Always revalidate: a late void or correction changes the data-versioned ETag
+    private CacheControl closedDayCacheControl() {
+        return CacheControl.noCache().cachePrivate();
+    }
+}
@@ -0,0 +1,34 @@
+package com.aliifishmarket.controller;
+
+import com.aliifishmarket.service.UppWebhookService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Receives UPP webhooks. Authenticated by HMAC signature, not by login.
+ */
+@RestController
+@RequestMapping("/upp/webhooks")
+public class UppWebhookController {
+
+    @Autowired
+    private UppWebhookService uppWebhookService;
+
+    @PostMapping
+    public ResponseEntity<Void> receive(
+            @RequestBody byte[] body,
+            @RequestHeader(value = "X-UPP-Signature", required = false) String signature) {
+        return switch (uppWebhookService.receive(body, signature)) {
+            case ACCEPTED -> ResponseEntity.status(HttpStatus.ACCEPTED).build();
+            case DUPLICATE -> ResponseEntity.ok().build();
+            case INVALID_SIGNATURE -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            case OVERLOADED -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "5").build();
+        };
+    }
+}
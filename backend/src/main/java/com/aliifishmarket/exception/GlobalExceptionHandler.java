@@ -73,6 +73,25 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
     }
 
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<Map<String, Object>> handleInsufficientStock(
+            InsufficientStockException ex, 
+            HttpServletRequest request) {
+        
+        logger.info("Stock reservation rejected: {}", ex.getMessage());
+        
+        Map<String, Object> errorResponse = createErrorResponse(
+            "OUT_OF_STOCK", 
+            "Sorry, this item just sold out. Please choose another item.", 
+            request.getRequestURI()
+        );
+        
+        errorResponse.put("menuItemId", ex.getMenuItemId());
+        errorResponse.put("available", ex.getAvailable());
+        
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(DataAccessException.class)
     public ResponseEntity<Map<String, Object>> handleDatabaseError(
             DataAccessException ex, 
@@ -202,17 +221,3 @@ class PaymentProcessingException extends RuntimeException {
     public String getAmount() { return amount; }
     public String getOrderId() { return orderId; }
 }
-
-class UppIntegrationException extends RuntimeException {
-    private String transactionId;
-    private String uppResponse;
-
-    public UppIntegrationException(String message, String transactionId, String uppResponse) {
-        super(message);
-        this.transactionId = transactionId;
-        this.uppResponse = uppResponse;
-    }
-
-    public String getTransactionId() { return transactionId; }
-    public String getUppResponse() { return uppResponse; }
-}
\ No newline at end of file
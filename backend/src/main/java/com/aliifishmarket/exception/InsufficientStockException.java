@@ -0,0 +1,21 @@
+package com.aliifishmarket.exception;
+
+/**
+ * Thrown when a stock reservation cannot be satisfied
+ */
+public class InsufficientStockException extends RuntimeException {
+    private final Long menuItemId;
+    private final int requested;
+    private final int available;
+
+    public InsufficientStockException(Long menuItemId, int requested, int available) {
+        super("Insufficient stock for menu item " + menuItemId + ": requested " + requested + ", available " + available);
+        this.menuItemId = menuItemId;
+        this.requested = requested;
+        this.available = available;
+    }
+
+    public Long getMenuItemId() { return menuItemId; }
+    public int getRequested() { return requested; }
+    public int getAvailable() { return available; }
+}
@@ -0,0 +1,24 @@
+package com.aliifishmarket.exception;
+
+/**
+ * Failure talking to the Universal Payment Protocol service
+ */
+public class UppIntegrationException extends RuntimeException {
+    private String transactionId;
+    private String uppResponse;
+
+    public UppIntegrationException(String message, String transactionId, String uppResponse) {
+        super(message);
+        this.transactionId = transactionId;
+        this.uppResponse = uppResponse;
+    }
+
+    public UppIntegrationException(String message, String transactionId, String uppResponse, Throwable cause) {
+        super(message, cause);
+        this.transactionId = transactionId;
+        this.uppResponse = uppResponse;
+    }
+
+    public String getTransactionId() { return transactionId; }
+    public String getUppResponse() { return uppResponse; }
+}
@@ -0,0 +1,12 @@
+package com.aliifishmarket.exception;
+
+/**
+ * UPP call refused locally (circuit open or bulkhead full). The request never
+ * reached UPP, so it is always safe to fall back to another payment method.
+ */
+public class UppUnavailableException extends UppIntegrationException {
+
+    public UppUnavailableException(String message) {
+        super(message, null, null);
+    }
+}
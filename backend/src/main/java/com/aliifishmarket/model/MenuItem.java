@@ -8,6 +8,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "menu_items")
+@EntityListeners(MenuItemListener.class)
 public class MenuItem {
     
     @Id
@@ -0,0 +1,37 @@
+package com.aliifishmarket.model;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA entity listener that publishes a {@link MenuItemChangedEvent} for every
+ * MenuItem write so in-memory menu views can be refreshed.
+ * Instantiated by Hibernate through Spring's bean container, so injection works.
+ */
+public class MenuItemListener {
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onMenuItemWrite(MenuItem menuItem) {
+        if (eventPublisher != null) {
+            eventPublisher.publishEvent(new MenuItemChangedEvent(menuItem.getId()));
+        }
+    }
+    
+    public static class MenuItemChangedEvent {
+        private final Long menuItemId;
+        
+        public MenuItemChangedEvent(Long menuItemId) {
+            this.menuItemId = menuItemId;
+        }
+        
+        public Long getMenuItemId() { return menuItemId; }
+    }
+}
@@ -8,6 +8,7 @@ import jakarta.validation.constraints.Size;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Entity
@@ -76,7 +77,7 @@ public class Transaction {
     private LocalDateTime updatedAt;
     
     @OneToMany(mappedBy = "transaction", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    private List<TransactionItem> items;
+    private List<TransactionItem> items = new ArrayList<>();
     
     public enum PaymentMethod {
         CASH, CARD, NFC, QR
@@ -0,0 +1,88 @@
+package com.aliifishmarket.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "upp_device_registrations",
+       uniqueConstraints = @UniqueConstraint(name = "uk_upp_device_fingerprint_staff",
+                                             columnNames = {"fingerprint", "staff_member_id"}))
+public class UppDeviceRegistration {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "fingerprint", nullable = false)
+    @NotBlank
+    @Size(max = 255)
+    private String fingerprint;
+    
+    @Column(name = "staff_member_id", nullable = false, length = 50)
+    @NotBlank
+    @Size(max = 50)
+    private String staffMemberId;
+    
+    @Column(name = "device_type", nullable = false, length = 50)
+    @NotBlank
+    @Size(max = 50)
+    private String deviceType;
+    
+    // Comma-separated, sorted
+    @Column(name = "capabilities", length = 500)
+    @Size(max = 500)
+    private String capabilities;
+    
+    @Column(name = "upp_device_id", nullable = false)
+    @NotBlank
+    private String uppDeviceId;
+    
+    @Column(name = "registered_at", nullable = false)
+    private LocalDateTime registeredAt;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    // Constructors
+    public UppDeviceRegistration() {
+        this.registeredAt = LocalDateTime.now();
+    }
+    
+    public UppDeviceRegistration(String fingerprint, String staffMemberId) {
+        this();
+        this.fingerprint = fingerprint;
+        this.staffMemberId = staffMemberId;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getFingerprint() { return fingerprint; }
+    public void setFingerprint(String fingerprint) { this.fingerprint = fingerprint; }
+    
+    public String getStaffMemberId() { return staffMemberId; }
+    public void setStaffMemberId(String staffMemberId) { this.staffMemberId = staffMemberId; }
+    
+    public String getDeviceType() { return deviceType; }
+    public void setDeviceType(String deviceType) { this.deviceType = deviceType; }
+    
+    public String getCapabilities() { return capabilities; }
+    public void setCapabilities(String capabilities) { this.capabilities = capabilities; }
+    
+    public String getUppDeviceId() { return uppDeviceId; }
+    public void setUppDeviceId(String uppDeviceId) { this.uppDeviceId = uppDeviceId; }
+    
+    public LocalDateTime getRegisteredAt() { return registeredAt; }
+    public void setRegisteredAt(LocalDateTime registeredAt) { this.registeredAt = registeredAt; }
+    
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+    
+    // Business methods
+    public boolean isExpired(LocalDateTime now) {
+        return expiresAt == null || !now.isBefore(expiresAt);
+    }
+}
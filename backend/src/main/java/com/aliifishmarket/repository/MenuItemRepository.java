@@ -0,0 +1,24 @@
+package com.aliifishmarket.repository;
+
+import com.aliifishmarket.model.MenuItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
+    
+    List<MenuItem> findByAvailableTrue();
+    
+    List<MenuItem> findByCategory(MenuItem.MenuCategory category);
+    
+    // Snapshot loading: the two element collections are bags, so they are fetched
+    // in two queries against the same persistence context instead of 1 + 2N lazy loads
+    @Query("SELECT DISTINCT m FROM MenuItem m LEFT JOIN FETCH m.allergens ORDER BY m.id")
+    List<MenuItem> findAllWithAllergens();
+    
+    @Query("SELECT DISTINCT m FROM MenuItem m LEFT JOIN FETCH m.tags ORDER BY m.id")
+    List<MenuItem> findAllWithTags();
+}
@@ -0,0 +1,79 @@
+package com.aliifishmarket.repository;
+
+import com.aliifishmarket.model.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    Optional<Order> findByOrderNumber(String orderNumber);
+
+    Optional<Order> findByUppPaymentId(String uppPaymentId);
+
+    // Archival queries (see ArchivalService and database/migrations/003_archive_tables.sql)
+    @Query("""
+        SELECT o.id FROM Order o
+        WHERE o.status IN (:statuses)
+        AND COALESCE(o.completedAt, o.updatedAt, o.createdAt) < :cutoff
+        ORDER BY o.id
+        """)
+    List<Long> findIdsForArchival(@Param("statuses") List<Order.OrderStatus> statuses,
+                                  @Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO orders_archive (id, order_number, customer_name, customer_email, customer_phone,
+            status, order_type, scheduled_time, estimated_ready_time, subtotal, tax_amount, service_fee,
+            total_amount, payment_method, payment_status, payment_transaction_id, upp_payment_id,
+            special_instructions, staff_notes, created_at, updated_at, completed_at, assigned_staff_id)
+        SELECT id, order_number, customer_name, customer_email, customer_phone,
+            status, order_type, scheduled_time, estimated_ready_time, subtotal, tax_amount, service_fee,
+            total_amount, payment_method, payment_status, payment_transaction_id, upp_payment_id,
+            special_instructions, staff_notes, created_at, updated_at, completed_at, assigned_staff_id
+        FROM orders WHERE id IN (:ids)
+        """, nativeQuery = true)
+    int copyToArchive(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO order_items_archive (id, order_id, menu_item_id, quantity, unit_price, subtotal,
+            special_instructions)
+        SELECT id, order_id, menu_item_id, quantity, unit_price, subtotal, special_instructions
+        FROM order_items WHERE order_id IN (:ids)
+        """, nativeQuery = true)
+    int copyItemsToArchive(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO order_item_customizations_archive (order_item_id, customization)
+        SELECT c.order_item_id, c.customization
+        FROM order_item_customizations c
+        JOIN order_items i ON i.id = c.order_item_id
+        WHERE i.order_id IN (:ids)
+        """, nativeQuery = true)
+    int copyItemCustomizationsToArchive(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = """
+        DELETE FROM order_item_customizations
+        WHERE order_item_id IN (SELECT id FROM order_items WHERE order_id IN (:ids))
+        """, nativeQuery = true)
+    int deleteItemCustomizationsByOrderIds(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM order_items WHERE order_id IN (:ids)", nativeQuery = true)
+    int deleteItemsByOrderIds(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM orders WHERE id IN (:ids)", nativeQuery = true)
+    int deleteByIds(@Param("ids") List<Long> ids);
+}
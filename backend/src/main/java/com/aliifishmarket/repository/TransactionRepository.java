@@ -1,8 +1,11 @@
 package com.aliifishmarket.repository;
 
 import com.aliifishmarket.model.Transaction;
+import com.aliifishmarket.model.TransactionItem;
 import com.aliifishmarket.model.Staff;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -89,4 +92,120 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
         ORDER BY SUM(t.totalAmount) DESC
         """)
     List<Object> getStaffPerformanceSummary(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
-}
\ No newline at end of file
+    
+    // Archival queries (see ArchivalService and database/migrations/003_archive_tables.sql)
+    @Query("SELECT t.id FROM Transaction t WHERE t.transactionDate < :cutoff ORDER BY t.id")
+    List<Long> findIdsForArchival(@Param("cutoff") LocalDate cutoff, Pageable pageable);
+    
+    @Modifying
+    @Query(value = """
+        INSERT INTO transactions_archive (id, transaction_id, receipt_number, staff_id, payment_method,
+            subtotal, tax_amount, total_amount, cash_received, change_given, status, transaction_date,
+            created_at, updated_at)
+        SELECT id, transaction_id, receipt_number, staff_id, payment_method,
+            subtotal, tax_amount, total_amount, cash_received, change_given, status, transaction_date,
+            created_at, updated_at
+        FROM transactions WHERE id IN (:ids)
+        """, nativeQuery = true)
+    int copyToArchive(@Param("ids") List<Long> ids);
+    
+    @Modifying
+    @Query(value = """
+        INSERT INTO transaction_items_archive (id, transaction_id, item_name, item_price, quantity,
+            line_total, created_at)
+        SELECT id, transaction_id, item_name, item_price, quantity, line_total, created_at
+        FROM transaction_items WHERE transaction_id IN (:ids)
+        """, nativeQuery = true)
+    int copyItemsToArchive(@Param("ids") List<Long> ids);
+    
+    @Modifying
+    @Query(value = "DELETE FROM transaction_items WHERE transaction_id IN (:ids)", nativeQuery = true)
+    int deleteItemsByTransactionIds(@Param("ids") List<Long> ids);
+    
+    @Modifying
+    @Query(value = "DELETE FROM transactions WHERE id IN (:ids)", nativeQuery = true)
+    int deleteByIds(@Param("ids") List<Long> ids);
+    
+    // Archive reads
+    @Query(value = "SELECT * FROM transactions_archive WHERE transaction_id = :transactionId", nativeQuery = true)
+    Optional<Transaction> findArchivedByTransactionId(@Param("transactionId") String transactionId);
+    
+    @Query(value = "SELECT * FROM transaction_items_archive WHERE transaction_id = :id ORDER BY id", nativeQuery = true)
+    List<TransactionItem> findArchivedItems(@Param("id") Long id);
+    
+    @Query(value = """
+        SELECT * FROM transactions_archive
+        WHERE transaction_date BETWEEN :startDate AND :endDate
+        ORDER BY created_at DESC
+        """, nativeQuery = true)
+    List<Transaction> findArchivedByTransactionDateBetween(
+        @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    @Query(value = """
+        SELECT * FROM transactions_archive
+        WHERE staff_id = :staffId AND transaction_date = :date
+        ORDER BY created_at DESC
+        """, nativeQuery = true)
+    List<Transaction> findArchivedByStaffAndTransactionDate(
+        @Param("staffId") Long staffId, @Param("date") LocalDate date);
+    
+    @Query(value = """
+        SELECT COUNT(*),
+            COALESCE(SUM(total_amount), 0),
+            COALESCE(SUM(CASE WHEN payment_method = 'CASH' THEN total_amount ELSE 0 END), 0),
+            COALESCE(SUM(CASE WHEN payment_method = 'CARD' THEN total_amount ELSE 0 END), 0),
+            COALESCE(SUM(CASE WHEN payment_method = 'NFC' THEN total_amount ELSE 0 END), 0),
+            COALESCE(SUM(CASE WHEN payment_method = 'QR' THEN total_amount ELSE 0 END), 0)
+        FROM transactions_archive
+        WHERE transaction_date = :date AND status = 'COMPLETED'
+        """, nativeQuery = true)
+    List<Object[]> getArchivedDailyTotals(@Param("date") LocalDate date);
+    
+    // Row count and last change for a date range, used to version cached reports
+    @Query("SELECT COUNT(t), MAX(t.updatedAt) FROM Transaction t WHERE t.transactionDate BETWEEN :startDate AND :endDate")
+    List<Object[]> getChangeStamp(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query(value = """
+        SELECT COUNT(*), MAX(updated_at) FROM transactions_archive
+        WHERE transaction_date BETWEEN :startDate AND :endDate
+        """, nativeQuery = true)
+    List<Object[]> getArchivedChangeStamp(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    @Query(value = """
+        SELECT COUNT(*), COALESCE(SUM(total_amount), 0)
+        FROM transactions_archive
+        WHERE staff_id = :staffId AND transaction_date = :date AND status = 'COMPLETED'
+        """, nativeQuery = true)
+    List<Object[]> getArchivedStaffTotals(@Param("staffId") Long staffId, @Param("date") LocalDate date);
+    
+    @Query(value = """
+        SELECT transaction_date,
+            COUNT(*),
+            SUM(total_amount),
+            SUM(CASE WHEN payment_method = 'CASH' THEN total_amount ELSE 0 END),
+            SUM(CASE WHEN payment_method = 'CARD' THEN total_amount ELSE 0 END),
+            SUM(CASE WHEN payment_method = 'NFC' THEN total_amount ELSE 0 END),
+            SUM(CASE WHEN payment_method = 'QR' THEN total_amount ELSE 0 END),
+            SUM(tax_amount)
+        FROM transactions_archive
+        WHERE transaction_date BETWEEN :startDate AND :endDate
+        AND status = 'COMPLETED'
+        GROUP BY transaction_date
+        ORDER BY transaction_date DESC
+        """, nativeQuery = true)
+    List<Object[]> getArchivedDailySalesSummary(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    @Query(value = """
+        SELECT s.employee_id,
+            CONCAT(s.first_name, ' ', s.last_name),
+            COUNT(t.id),
+            SUM(t.total_amount),
+            SUM(CASE WHEN t.payment_method = 'CASH' THEN t.total_amount ELSE 0 END)
+        FROM transactions_archive t
+        JOIN staff s ON s.id = t.staff_id
+        WHERE t.transaction_date BETWEEN :startDate AND :endDate
+        AND t.status = 'COMPLETED'
+        GROUP BY s.id, s.employee_id, s.first_name, s.last_name
+        """, nativeQuery = true)
+    List<Object[]> getArchivedStaffPerformanceSummary(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
@@ -0,0 +1,21 @@
+package com.aliifishmarket.repository;
+
+import com.aliifishmarket.model.UppDeviceRegistration;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface UppDeviceRegistrationRepository extends JpaRepository<UppDeviceRegistration, Long> {
+    
+    Optional<UppDeviceRegistration> findByFingerprintAndStaffMemberId(String fingerprint, String staffMemberId);
+    
+    @Modifying
+    @Query("DELETE FROM UppDeviceRegistration d WHERE d.expiresAt < :cutoff")
+    int deleteExpiredBefore(@Param("cutoff") LocalDateTime cutoff);
+}
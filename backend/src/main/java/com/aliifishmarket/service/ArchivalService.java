@@ -0,0 +1,173 @@
+package com.aliifishmarket.service;
+
+import com.aliifishmarket.model.Order;
+import com.aliifishmarket.repository.OrderRepository;
+import com.aliifishmarket.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Moves closed orders and old transactions from the hot tables into their
+ * *_archive counterparts in small, throttled batches.
+ * Each batch is copied and deleted in its own short transaction so the job never
+ * holds locks on the hot tables for long, and the pause between batches keeps it
+ * from competing with checkout traffic.
+ * Transaction lookups and reports read transactions_archive transparently; no
+ * API serves orders, so archived orders are kept for audit only.
+ */
+@Service
+public class ArchivalService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchivalService.class);
+
+    private static final List<Order.OrderStatus> ARCHIVABLE_ORDER_STATUSES =
+        List.of(Order.OrderStatus.COMPLETED, Order.OrderStatus.CANCELLED);
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.archive.enabled:false}")
+    private boolean archiveEnabled;
+
+    @Value("${app.archive.order-retention-days:30}")
+    private int orderRetentionDays;
+
+    @Value("${app.archive.transaction-retention-days:90}")
+    private int transactionRetentionDays;
+
+    @Value("${app.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.archive.batch-pause-ms:250}")
+    private long batchPauseMs;
+
+    @Value("${app.archive.max-batches-per-run:200}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.business.timezone:Pacific/Honolulu}")
+    private String businessTimezone;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    /**
+     * Scheduled archival run. Overlapping runs are skipped.
+     */
+    @Scheduled(cron = "${app.archive.cron:0 30 3 * * *}", zone = "${app.business.timezone:Pacific/Honolulu}")
+    public void archive() {
+        if (!archiveEnabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            int transactions = archiveTransactions();
+            int orders = archiveOrders();
+            logger.info("Archival run complete: {} transactions, {} orders moved to archive", transactions, orders);
+        } catch (Exception e) {
+            logger.error("Archival run failed: {}", e.getMessage(), e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Archive transactions dated before the transaction hot window
+     */
+    public int archiveTransactions() {
+        LocalDate cutoff = getTransactionHotWindowStart();
+        return runBatches("transactions", pageable -> transactionRepository.findIdsForArchival(cutoff, pageable),
+            ids -> {
+                transactionRepository.copyToArchive(ids);
+                transactionRepository.copyItemsToArchive(ids);
+                transactionRepository.deleteItemsByTransactionIds(ids);
+                return transactionRepository.deleteByIds(ids);
+            });
+    }
+
+    /**
+     * Archive COMPLETED or CANCELLED orders closed before the order hot window
+     */
+    public int archiveOrders() {
+        LocalDateTime cutoff = LocalDate.now(getZone()).minusDays(orderRetentionDays).atStartOfDay();
+        return runBatches("orders",
+            pageable -> orderRepository.findIdsForArchival(ARCHIVABLE_ORDER_STATUSES, cutoff, pageable),
+            ids -> {
+                orderRepository.copyToArchive(ids);
+                orderRepository.copyItemsToArchive(ids);
+                orderRepository.copyItemCustomizationsToArchive(ids);
+                orderRepository.deleteItemCustomizationsByOrderIds(ids);
+                orderRepository.deleteItemsByOrderIds(ids);
+                return orderRepository.deleteByIds(ids);
+            });
+    }
+
+    /**
+     * First transaction date guaranteed to still be in the hot tables.
+     * Anything dated earlier may have been moved to transactions_archive.
+     */
+    public LocalDate getTransactionHotWindowStart() {
+        return LocalDate.now(getZone()).minusDays(transactionRetentionDays);
+    }
+
+    /**
+     * Whether reads reaching back to the given date need to consult the archive
+     */
+    public boolean reachesArchive(LocalDate date) {
+        return archiveEnabled && date != null && date.isBefore(getTransactionHotWindowStart());
+    }
+
+    public boolean isArchiveEnabled() {
+        return archiveEnabled;
+    }
+
+    private int runBatches(String table, Function<PageRequest, List<Long>> idLoader, Function<List<Long>, Integer> mover) {
+        int moved = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<Long> ids = idLoader.apply(PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            Integer deleted = transactionTemplate.execute(status -> mover.apply(ids));
+            moved += deleted != null ? deleted : 0;
+            logger.debug("Archived batch of {} {}", ids.size(), table);
+
+            if (ids.size() < batchSize || !pause()) {
+                break;
+            }
+        }
+        return moved;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private ZoneId getZone() {
+        return ZoneId.of(businessTimezone);
+    }
+}
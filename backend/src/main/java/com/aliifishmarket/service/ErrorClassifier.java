@@ -0,0 +1,276 @@
+package com.aliifishmarket.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Queue;
+
+/**
+ * Severity and business-impact classification of errors from keyword rules.
+ *
+ * The rules (error-classification.properties by default) are compiled into one
+ * Aho-Corasick automaton over all keywords, so an error's simple class name and
+ * message are classified in a single case-insensitive pass without lowercasing
+ * or rescanning them per keyword. A null message is fine. The rules file is
+ * polled and recompiled when it changes; a file that fails to compile leaves the
+ * current rules in place.
+ */
+@Service
+public class ErrorClassifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(ErrorClassifier.class);
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Value("${app.error-monitor.classification.rules-location:classpath:error-classification.properties}")
+    private String rulesLocation;
+
+    private volatile CompiledRules rules = CompiledRules.compile(new Properties());
+    private volatile long rulesModified = -1;
+
+    @PostConstruct
+    public void init() {
+        reloadIfChanged();
+    }
+
+    public Classification classify(Throwable error) {
+        return rules.classify(error.getClass().getSimpleName(), error.getMessage());
+    }
+
+    public Classification classify(String type, String message) {
+        return rules.classify(type, message);
+    }
+
+    /**
+     * Recompile the rules if the file changed since the last load
+     */
+    @Scheduled(fixedDelayString = "${app.error-monitor.classification.reload-interval-ms:30000}",
+               initialDelayString = "${app.error-monitor.classification.reload-interval-ms:30000}")
+    public void reloadIfChanged() {
+        Resource resource = resourceLoader.getResource(rulesLocation);
+        long modified;
+        try {
+            modified = resource.lastModified();
+        } catch (IOException e) {
+            // Not a file (e.g. inside the jar): loaded once, never changes
+            modified = 0;
+        }
+        if (modified == rulesModified) {
+            return;
+        }
+
+        Properties properties = new Properties();
+        try (InputStream in = resource.getInputStream()) {
+            properties.load(in);
+            rules = CompiledRules.compile(properties);
+            rulesModified = modified;
+            logger.info("Error classification rules loaded from {} ({} keywords)", rulesLocation, rules.keywordCount);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Error classification rules not reloaded from {}: {}", rulesLocation, e.getMessage());
+        }
+    }
+
+    // Compiled rules
+
+    /**
+     * Immutable rule set: a DFA over ASCII where every state carries the bitmask of
+     * rules whose keywords end there (including via failure links). Rules are
+     * numbered in priority order, severity levels first and impact profiles after,
+     * so the winner of each kind is the lowest set bit in its range.
+     */
+    static final class CompiledRules {
+        private static final int ALPHABET = 128;
+        private static final int ALPHABET_BITS = 7;
+        private static final int MAX_RULES = 64;
+
+        private final int[] transitions;
+        private final long[] outputs;
+        private final int keywordCount;
+
+        private final String[] severities;
+        private final String defaultSeverity;
+        private final long severityMask;
+        private final List<Map<String, String>> impacts;
+        private final Map<String, String> defaultImpact;
+        private final int impactBase;
+
+        private CompiledRules(int[] transitions, long[] outputs, int keywordCount, String[] severities,
+                              String defaultSeverity, List<Map<String, String>> impacts, Map<String, String> defaultImpact) {
+            this.transitions = transitions;
+            this.outputs = outputs;
+            this.keywordCount = keywordCount;
+            this.severities = severities;
+            this.defaultSeverity = defaultSeverity;
+            this.severityMask = severities.length == 0 ? 0 : -1L >>> (64 - severities.length);
+            this.impacts = impacts;
+            this.defaultImpact = defaultImpact;
+            this.impactBase = severities.length;
+        }
+
+        static CompiledRules compile(Properties properties) {
+            List<String> severityOrder = list(properties.getProperty("severity.order", ""));
+            List<String> impactOrder = list(properties.getProperty("impact.order", ""));
+            if (severityOrder.size() + impactOrder.size() > MAX_RULES) {
+                throw new IllegalArgumentException("At most " + MAX_RULES + " severity levels and impact profiles");
+            }
+
+            List<List<String>> keywordsByRule = new ArrayList<>();
+            for (String level : severityOrder) {
+                keywordsByRule.add(list(properties.getProperty("severity." + level, "")));
+            }
+            List<Map<String, String>> impacts = new ArrayList<>();
+            for (String profile : impactOrder) {
+                keywordsByRule.add(list(properties.getProperty("impact." + profile + ".keywords", "")));
+                impacts.add(impactLevels(properties.getProperty("impact." + profile + ".levels", "")));
+            }
+
+            // Trie, grown as flat arrays
+            int[] trie = new int[ALPHABET * 16];
+            Arrays.fill(trie, -1);
+            long[] outputs = new long[16];
+            int states = 1;
+            int keywordCount = 0;
+            for (int rule = 0; rule < keywordsByRule.size(); rule++) {
+                for (String keyword : keywordsByRule.get(rule)) {
+                    int state = 0;
+                    for (int i = 0; i < keyword.length(); i++) {
+                        char c = Character.toLowerCase(keyword.charAt(i));
+                        if (c >= ALPHABET) {
+                            throw new IllegalArgumentException("Keywords must be ASCII: " + keyword);
+                        }
+                        if (trie[state * ALPHABET + c] < 0) {
+                            if (states == outputs.length) {
+                                outputs = Arrays.copyOf(outputs, states * 2);
+                                int oldLength = trie.length;
+                                trie = Arrays.copyOf(trie, oldLength * 2);
+                                Arrays.fill(trie, oldLength, trie.length, -1);
+                            }
+                            trie[state * ALPHABET + c] = states++;
+                        }
+                        state = trie[state * ALPHABET + c];
+                    }
+                    outputs[state] |= 1L << rule;
+                    keywordCount++;
+                }
+            }
+
+            // Breadth-first: resolve failure links into full transitions and merge outputs
+            int[] transitions = Arrays.copyOf(trie, states * ALPHABET);
+            outputs = Arrays.copyOf(outputs, states);
+            int[] failure = new int[states];
+            Queue<Integer> queue = new ArrayDeque<>();
+            for (int c = 0; c < ALPHABET; c++) {
+                int next = transitions[c];
+                if (next < 0) {
+                    transitions[c] = 0;
+                } else {
+                    failure[next] = 0;
+                    queue.add(next);
+                }
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                outputs[state] |= outputs[failure[state]];
+                for (int c = 0; c < ALPHABET; c++) {
+                    int next = transitions[state * ALPHABET + c];
+                    if (next < 0) {
+                        transitions[state * ALPHABET + c] = transitions[failure[state] * ALPHABET + c];
+                    } else {
+                        failure[next] = transitions[failure[state] * ALPHABET + c];
+                        queue.add(next);
+                    }
+                }
+            }
+
+            // Upper case goes wherever lower case goes, so the scan never lowercases
+            for (int state = 0; state < states; state++) {
+                int row = state * ALPHABET;
+                for (int c = 'A'; c <= 'Z'; c++) {
+                    transitions[row + c] = transitions[row + c + ('a' - 'A')];
+                }
+            }
+
+            return new CompiledRules(transitions, outputs, keywordCount, severityOrder.toArray(new String[0]),
+                properties.getProperty("severity.default", "low").trim(),
+                impacts, impactLevels(properties.getProperty("impact.default.levels", "low,low,low")));
+        }
+
+        Classification classify(String type, String message) {
+            long matched = scan(scan(0L, type), message);
+            long severity = matched & severityMask;
+            long impact = impactBase < 64 ? matched >>> impactBase : 0;
+            return new Classification(
+                severity != 0 ? severities[Long.numberOfTrailingZeros(severity)] : defaultSeverity,
+                impact != 0 ? impacts.get(Long.numberOfTrailingZeros(impact)) : defaultImpact);
+        }
+
+        private long scan(long matched, String text) {
+            if (text == null) {
+                return matched;
+            }
+            // Targets are state indices: the row is a shift away and the outputs are
+            // indexed directly, so there is no division per character
+            int state = 0;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                // Characters outside the keyword alphabet can't be part of a match
+                state = c < ALPHABET ? transitions[state << ALPHABET_BITS | c] : 0;
+                matched |= outputs[state];
+            }
+            return matched;
+        }
+
+        private static Map<String, String> impactLevels(String levels) {
+            List<String> values = list(levels);
+            if (values.size() != 3) {
+                throw new IllegalArgumentException("Impact levels must be revenue,operations,reputation: " + levels);
+            }
+            Map<String, String> impact = new LinkedHashMap<>();
+            impact.put("revenue", values.get(0));
+            impact.put("operations", values.get(1));
+            impact.put("reputation", values.get(2));
+            return Collections.unmodifiableMap(impact);
+        }
+
+        private static List<String> list(String value) {
+            List<String> values = new ArrayList<>();
+            for (String part : value.split(",")) {
+                if (!part.isBlank()) {
+                    values.add(part.trim());
+                }
+            }
+            return values;
+        }
+    }
+
+    public static final class Classification {
+        private final String severity;
+        private final Map<String, String> businessImpact;
+
+        Classification(String severity, Map<String, String> businessImpact) {
+            this.severity = severity;
+            this.businessImpact = businessImpact;
+        }
+
+        public String getSeverity() { return severity; }
+        public Map<String, String> getBusinessImpact() { return businessImpact; }
+    }
+}
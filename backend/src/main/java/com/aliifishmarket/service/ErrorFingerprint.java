@@ -0,0 +1,138 @@
+package com.aliifishmarket.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Identity of a recurring problem: exception type, root cause type, the top
+ * application frames and the message with variable parts (ids, numbers,
+ * quoted values) masked out. Two occurrences of the same failure get the same
+ * id regardless of which order or row triggered them.
+ */
+public final class ErrorFingerprint {
+
+    static final String APPLICATION_PACKAGE = "com.aliifishmarket.";
+
+    private static final int TOP_FRAMES = 3;
+    private static final int MAX_MESSAGE_LENGTH = 200;
+
+    // Not \b-bounded, so prefixed ids like mock_pay_<uuid> are masked too
+    private static final Pattern UUID = Pattern.compile(
+        "(?<![0-9a-fA-F])[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}(?![0-9a-fA-F])");
+    private static final Pattern EMAIL = Pattern.compile("\\b[\\w.+-]+@[\\w-]+(\\.[\\w-]+)+\\b");
+    private static final Pattern QUOTED = Pattern.compile("'[^']*'|\"[^\"]*\"");
+    // Hex ids and hashes: mixed digits and a-f, at least six long
+    private static final Pattern HEX = Pattern.compile(
+        "\\b0x[0-9a-fA-F]+\\b|\\b(?=[0-9a-fA-F]*\\d)(?=[0-9a-fA-F]*[a-fA-F])[0-9a-fA-F]{6,}\\b");
+    // Any other identifier-like token mixing letters and digits: order numbers
+    // (ALI1729312345678-3F2A), prefixed ids (upp_pay_8f3a9c21d4e5), codes
+    private static final Pattern MIXED_ID = Pattern.compile(
+        "(?<![\\w-])(?=[\\w-]*\\d)(?=[\\w-]*[A-Za-z])[\\w-]*\\w");
+    private static final Pattern NUMBER = Pattern.compile("\\d+([.,]\\d+)*");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final String id;
+    private final String exceptionType;
+    private final String normalizedMessage;
+
+    private ErrorFingerprint(String id, String exceptionType, String normalizedMessage) {
+        this.id = id;
+        this.exceptionType = exceptionType;
+        this.normalizedMessage = normalizedMessage;
+    }
+
+    /**
+     * Fingerprint of a thrown exception
+     */
+    public static ErrorFingerprint of(Throwable error) {
+        // Identity set, since initCause allows cycles longer than self-causation
+        Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        seen.add(error);
+        Throwable root = error;
+        while (root.getCause() != null && seen.add(root.getCause())) {
+            root = root.getCause();
+        }
+
+        String exceptionType = error.getClass().getName();
+        String message = normalizeMessage(error.getMessage());
+        StringBuilder key = new StringBuilder(exceptionType).append('|').append(root.getClass().getName());
+        for (String frame : topFrames(error)) {
+            key.append('|').append(frame);
+        }
+        key.append('|').append(message);
+        return new ErrorFingerprint(hash(key), exceptionType, message);
+    }
+
+    /**
+     * Fingerprint of an error that only exists as a message, e.g. a UPP error response
+     */
+    public static ErrorFingerprint ofMessage(String kind, String message) {
+        String normalized = normalizeMessage(message);
+        return new ErrorFingerprint(hash(new StringBuilder(kind).append('|').append(normalized)), kind, normalized);
+    }
+
+    static String normalizeMessage(String message) {
+        if (message == null || message.isBlank()) {
+            return "";
+        }
+        String normalized = UUID.matcher(message).replaceAll("<uuid>");
+        normalized = EMAIL.matcher(normalized).replaceAll("<email>");
+        normalized = QUOTED.matcher(normalized).replaceAll("'?'");
+        normalized = HEX.matcher(normalized).replaceAll("<hex>");
+        normalized = MIXED_ID.matcher(normalized).replaceAll("<id>");
+        normalized = NUMBER.matcher(normalized).replaceAll("#");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        return normalized.length() > MAX_MESSAGE_LENGTH ? normalized.substring(0, MAX_MESSAGE_LENGTH) : normalized;
+    }
+
+    /**
+     * Top application frames (class.method, no line numbers so a small edit
+     * elsewhere in the file keeps the fingerprint), or the top frames of any
+     * kind if the trace never enters application code
+     */
+    static List<String> topFrames(Throwable error) {
+        StackTraceElement[] trace = error.getStackTrace();
+        List<String> frames = new ArrayList<>(TOP_FRAMES);
+        for (StackTraceElement element : trace) {
+            // Skip Spring-generated proxies, they differ between runs
+            if (element.getClassName().startsWith(APPLICATION_PACKAGE) && !element.getClassName().contains("$$")) {
+                frames.add(element.getClassName() + "." + element.getMethodName());
+                if (frames.size() == TOP_FRAMES) {
+                    return frames;
+                }
+            }
+        }
+        if (frames.isEmpty()) {
+            for (int i = 0; i < trace.length && i < TOP_FRAMES; i++) {
+                frames.add(trace[i].getClassName() + "." + trace[i].getMethodName());
+            }
+        }
+        return frames;
+    }
+
+    private static String hash(CharSequence key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(key.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 not available", e);
+        }
+    }
+
+    public String getId() { return id; }
+    public String getExceptionType() { return exceptionType; }
+    public String getNormalizedMessage() { return normalizedMessage; }
+
+    @Override
+    public String toString() {
+        return id;
+    }
+}
@@ -4,8 +4,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.scheduling.annotation.Async;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.aliifishmarket.config.ErrorMonitorConfig;
 import java.time.LocalDateTime;
@@ -18,7 +16,16 @@ public class ErrorMonitorService {
     private static final Logger logger = LoggerFactory.getLogger(ErrorMonitorService.class);
 
     @Autowired
-    private RestTemplate errorMonitorRestTemplate;
+    private ErrorReportDispatcher errorReportDispatcher;
+
+    @Autowired
+    private ErrorSampler errorSampler;
+
+    @Autowired
+    private StackTraceEncoder stackTraceEncoder;
+
+    @Autowired
+    private ErrorClassifier errorClassifier;
 
     @Autowired
     private ErrorMonitorConfig errorMonitorConfig;
@@ -26,21 +33,29 @@ public class ErrorMonitorService {
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     /**
-     * Report error to AI monitoring system
+     * Report error to AI monitoring system. Reports are queued and sent off the
+     * request thread by ErrorReportDispatcher, so none of these methods block. Only the
+     * first occurrences of each fingerprint are reported in full; ErrorSampler
+     * sends periodic aggregates for the rest.
      */
-    @Async
     public void reportError(Exception error, String context, String userId) {
         if (!errorMonitorConfig.isErrorMonitorEnabled()) {
             return;
         }
 
         try {
-            Map<String, Object> errorReport = createErrorReport(error, context, userId);
+            ErrorFingerprint fingerprint = ErrorFingerprint.of(error);
+            long occurrence = errorSampler.record(fingerprint, "runtime", "runtime");
+            if (occurrence == 0) {
+                return;
+            }
+            Map<String, Object> errorReport = createErrorReport(error, fingerprint, context, userId);
+            addFingerprint(errorReport, fingerprint, occurrence);
             
-            // Send to AI error monitoring system
-            errorMonitorRestTemplate.postForObject("/api/errors/report", errorReport, String.class);
+            // Queue for the AI error monitoring system
+            errorReportDispatcher.submit("runtime", errorReport);
             
-            logger.info("Error reported to AI monitoring system: {}", error.getMessage());
+            logger.info("Error queued for AI monitoring system: {}", error.getMessage());
         } catch (Exception e) {
             logger.warn("Failed to report error to monitoring system: {}", e.getMessage());
         }
@@ -49,19 +64,24 @@ public class ErrorMonitorService {
     /**
      * Report payment error (high priority)
      */
-    @Async
     public void reportPaymentError(Exception error, String paymentMethod, String amount, String orderId) {
         if (!errorMonitorConfig.isErrorMonitorEnabled()) {
             return;
         }
 
         try {
-            Map<String, Object> errorReport = createPaymentErrorReport(error, paymentMethod, amount, orderId);
+            ErrorFingerprint fingerprint = ErrorFingerprint.of(error);
+            long occurrence = errorSampler.record(fingerprint, "payment", "payment");
+            if (occurrence == 0) {
+                return;
+            }
+            Map<String, Object> errorReport = createPaymentErrorReport(error, fingerprint, paymentMethod, amount, orderId);
+            addFingerprint(errorReport, fingerprint, occurrence);
             
-            // Send to AI error monitoring system with high priority
-            errorMonitorRestTemplate.postForObject("/api/errors/report/payment", errorReport, String.class);
+            // Queue for the AI error monitoring system
+            errorReportDispatcher.submit("payment", errorReport);
             
-            logger.error("Payment error reported to AI monitoring system: {}", error.getMessage());
+            logger.error("Payment error queued for AI monitoring system: {}", error.getMessage());
         } catch (Exception e) {
             logger.error("Failed to report payment error to monitoring system: {}", e.getMessage());
         }
@@ -70,19 +90,24 @@ public class ErrorMonitorService {
     /**
      * Report UPP integration error
      */
-    @Async
     public void reportUppError(String errorMessage, String transactionId, String response) {
         if (!errorMonitorConfig.isErrorMonitorEnabled()) {
             return;
         }
 
         try {
-            Map<String, Object> errorReport = createUppErrorReport(errorMessage, transactionId, response);
+            ErrorFingerprint fingerprint = ErrorFingerprint.ofMessage("upp", errorMessage);
+            long occurrence = errorSampler.record(fingerprint, "upp", "payment");
+            if (occurrence == 0) {
+                return;
+            }
+            Map<String, Object> errorReport = createUppErrorReport(errorMessage, fingerprint, transactionId, response);
+            addFingerprint(errorReport, fingerprint, occurrence);
             
-            // Send to AI error monitoring system
-            errorMonitorRestTemplate.postForObject("/api/errors/report/upp", errorReport, String.class);
+            // Queue for the AI error monitoring system
+            errorReportDispatcher.submit("upp", errorReport);
             
-            logger.error("UPP error reported to AI monitoring system: {}", errorMessage);
+            logger.error("UPP error queued for AI monitoring system: {}", errorMessage);
         } catch (Exception e) {
             logger.error("Failed to report UPP error to monitoring system: {}", e.getMessage());
         }
@@ -91,42 +116,55 @@ public class ErrorMonitorService {
     /**
      * Report database error
      */
-    @Async
     public void reportDatabaseError(Exception error, String query, String operation) {
         if (!errorMonitorConfig.isErrorMonitorEnabled()) {
             return;
         }
 
         try {
-            Map<String, Object> errorReport = createDatabaseErrorReport(error, query, operation);
+            ErrorFingerprint fingerprint = ErrorFingerprint.of(error);
+            long occurrence = errorSampler.record(fingerprint, "database", "database");
+            if (occurrence == 0) {
+                return;
+            }
+            Map<String, Object> errorReport = createDatabaseErrorReport(error, fingerprint, query, operation);
+            addFingerprint(errorReport, fingerprint, occurrence);
             
-            errorMonitorRestTemplate.postForObject("/api/errors/report/database", errorReport, String.class);
+            errorReportDispatcher.submit("database", errorReport);
             
-            logger.error("Database error reported to AI monitoring system: {}", error.getMessage());
+            logger.error("Database error queued for AI monitoring system: {}", error.getMessage());
         } catch (Exception e) {
             logger.warn("Failed to report database error to monitoring system: {}", e.getMessage());
         }
     }
 
-    private Map<String, Object> createErrorReport(Exception error, String context, String userId) {
+    private void addFingerprint(Map<String, Object> report, ErrorFingerprint fingerprint, long occurrence) {
+        report.put("fingerprint", fingerprint.getId());
+        report.put("occurrence", occurrence);
+    }
+
+    private Map<String, Object> createErrorReport(Exception error, ErrorFingerprint fingerprint, String context,
+                                                  String userId) {
         Map<String, Object> report = new HashMap<>();
         report.put("timestamp", LocalDateTime.now().toString());
         report.put("type", "runtime");
-        report.put("severity", determineSeverity(error));
+        ErrorClassifier.Classification classification = errorClassifier.classify(error);
+        report.put("severity", classification.getSeverity());
         report.put("message", error.getMessage());
-        report.put("stackTrace", getStackTrace(error));
+        report.put("stackTrace", stackTraceEncoder.encode(error, fingerprint));
         report.put("context", context);
         report.put("userId", userId);
         report.put("service", "alii-backend");
         report.put("environment", System.getProperty("spring.profiles.active", "development"));
         
         // Business context
-        report.put("businessImpact", assessBusinessImpact(error));
+        report.put("businessImpact", classification.getBusinessImpact());
         return report;
     }
 
-    private Map<String, Object> createPaymentErrorReport(Exception error, String paymentMethod, String amount, String orderId) {
-        Map<String, Object> report = createErrorReport(error, "payment_processing", null);
+    private Map<String, Object> createPaymentErrorReport(Exception error, ErrorFingerprint fingerprint,
+                                                         String paymentMethod, String amount, String orderId) {
+        Map<String, Object> report = createErrorReport(error, fingerprint, "payment_processing", null);
         report.put("type", "payment");
         report.put("severity", "critical");
         report.put("paymentMethod", paymentMethod);
@@ -143,7 +181,8 @@ public class ErrorMonitorService {
         return report;
     }
 
-    private Map<String, Object> createUppErrorReport(String errorMessage, String transactionId, String response) {
+    private Map<String, Object> createUppErrorReport(String errorMessage, ErrorFingerprint fingerprint,
+                                                     String transactionId, String response) {
         Map<String, Object> report = new HashMap<>();
         report.put("timestamp", LocalDateTime.now().toString());
         report.put("type", "payment");
@@ -151,56 +190,18 @@ public class ErrorMonitorService {
         report.put("message", errorMessage);
         report.put("transactionId", transactionId);
         report.put("uppResponse", response);
+        report.put("stackTrace", stackTraceEncoder.encodeCallSite(fingerprint));
         report.put("service", "alii-backend");
         report.put("context", "upp_integration");
         return report;
     }
 
-    private Map<String, Object> createDatabaseErrorReport(Exception error, String query, String operation) {
-        Map<String, Object> report = createErrorReport(error, "database_operation", null);
+    private Map<String, Object> createDatabaseErrorReport(Exception error, ErrorFingerprint fingerprint,
+                                                          String query, String operation) {
+        Map<String, Object> report = createErrorReport(error, fingerprint, "database_operation", null);
         report.put("type", "database");
         report.put("query", query);
         report.put("operation", operation);
         return report;
     }
-
-    private String determineSeverity(Exception error) {
-        if (error.getMessage().contains("payment") || error.getMessage().contains("transaction")) {
-            return "critical";
-        } else if (error.getMessage().contains("database") || error.getMessage().contains("connection")) {
-            return "high";
-        } else if (error.getMessage().contains("validation") || error.getMessage().contains("input")) {
-            return "medium";
-        }
-        return "low";
-    }
-
-    private String getStackTrace(Exception error) {
-        if (error.getStackTrace().length > 0) {
-            return error.getStackTrace()[0].toString();
-        }
-        return "";
-    }
-
-    private Map<String, String> assessBusinessImpact(Exception error) {
-        Map<String, String> impact = new HashMap<>();
-        
-        String message = error.getMessage().toLowerCase();
-        
-        if (message.contains("payment") || message.contains("transaction")) {
-            impact.put("revenue", "high");
-            impact.put("operations", "high");
-            impact.put("reputation", "medium");
-        } else if (message.contains("order") || message.contains("customer")) {
-            impact.put("revenue", "medium");
-            impact.put("operations", "high");
-            impact.put("reputation", "medium");
-        } else {
-            impact.put("revenue", "low");
-            impact.put("operations", "low");
-            impact.put("reputation", "low");
-        }
-        
-        return impact;
-    }
 }
\ No newline at end of file
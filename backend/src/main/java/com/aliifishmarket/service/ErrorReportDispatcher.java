@@ -0,0 +1,407 @@
+package com.aliifishmarket.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ships error reports to the monitoring system off the request threads.
+ *
+ * Reports go into a bounded lock-free queue. A small dedicated pool drains it
+ * when a full batch is waiting or when the flush interval elapses, posting each
+ * report to its channel's endpoint, or the whole batch to the batch endpoint
+ * when batch-enabled is set (the monitor has to support it). When the queue is
+ * full the overflow policy decides whether the new report or the oldest queued
+ * one is dropped, so an error storm costs at most queue-capacity reports of
+ * memory and never blocks the caller.
+ *
+ * Reports the monitor could not take (5xx, timeouts, connection errors) go to
+ * the ErrorReportSpool. While the monitor is failing, new reports are spooled
+ * without trying it, and the spool is replayed oldest first with exponential
+ * backoff until it is empty. Reports the monitor rejects with a 4xx are dropped
+ * and counted as failed, since sending them again would not help.
+ */
+@Service
+public class ErrorReportDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ErrorReportDispatcher.class);
+
+    private static final byte[] BATCH_PREFIX = "{\"service\":\"alii-backend\",\"reports\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] BATCH_SUFFIX = "]}".getBytes(StandardCharsets.UTF_8);
+
+    public enum OverflowPolicy {
+        /** Keep what is queued and drop the incoming report */
+        DROP_NEWEST,
+        /** Make room by dropping the oldest queued report */
+        DROP_OLDEST
+    }
+
+    @Autowired
+    private RestTemplate errorMonitorRestTemplate;
+
+    @Autowired
+    private ErrorReportSpool spool;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.error-monitor.dispatcher.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${app.error-monitor.dispatcher.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.error-monitor.dispatcher.flush-interval-ms:2000}")
+    private long flushIntervalMs;
+
+    @Value("${app.error-monitor.dispatcher.overflow-policy:DROP_OLDEST}")
+    private OverflowPolicy overflowPolicy;
+
+    @Value("${app.error-monitor.dispatcher.worker-threads:1}")
+    private int workerThreads;
+
+    @Value("${app.error-monitor.dispatcher.report-path:/api/errors/report}")
+    private String reportPath;
+
+    @Value("${app.error-monitor.dispatcher.batch-enabled:false}")
+    private boolean batchEnabled;
+
+    @Value("${app.error-monitor.dispatcher.batch-path:/api/errors/report/batch}")
+    private String batchPath;
+
+    @Value("${app.error-monitor.spool.replay-initial-backoff-ms:5000}")
+    private long initialBackoffMs;
+
+    @Value("${app.error-monitor.spool.replay-max-backoff-ms:300000}")
+    private long maxBackoffMs;
+
+    private final Queue<Map<String, Object>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    // Replay state, guarded by this
+    private boolean monitorFailing;
+    private long backoffMs;
+    private long nextReplayAt;
+
+    private ScheduledExecutorService executor;
+    private Counter sent;
+    private Counter dropped;
+    private Counter failed;
+    private Counter spooled;
+    private Timer postSucceeded;
+    private Timer postFailed;
+    private DistributionSummary batchSizes;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "error-report-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        executor = Executors.newScheduledThreadPool(Math.max(1, workerThreads), threadFactory);
+        executor.scheduleWithFixedDelay(this::drainSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+
+        sent = meterRegistry.counter("error.reports", "outcome", "sent");
+        dropped = meterRegistry.counter("error.reports", "outcome", "dropped");
+        failed = meterRegistry.counter("error.reports", "outcome", "failed");
+        spooled = meterRegistry.counter("error.reports", "outcome", "spooled");
+        postSucceeded = postTimer("SUCCESS");
+        postFailed = postTimer("FAILURE");
+        batchSizes = DistributionSummary.builder("error.reports.batch.size")
+            .description("Reports per batch sent to the error monitor")
+            .register(meterRegistry);
+        meterRegistry.gauge("error.reports.queued", queued);
+        meterRegistry.gauge("error.reports.spooled", spool, ErrorReportSpool::size);
+        FunctionCounter.builder("error.reports.overwritten", spool, ErrorReportSpool::getOverwrittenCount)
+            .description("Spooled reports lost because the ring was full")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Queue a report for the given channel (runtime, payment, upp, database).
+     * Never blocks; returns false if the report was dropped.
+     */
+    public boolean submit(String channel, Map<String, Object> report) {
+        report.put("channel", channel);
+
+        if (queued.incrementAndGet() > queueCapacity) {
+            if (overflowPolicy == OverflowPolicy.DROP_OLDEST && queue.poll() != null) {
+                queued.decrementAndGet();
+                dropped.increment();
+            } else {
+                queued.decrementAndGet();
+                dropped.increment();
+                return false;
+            }
+        }
+        queue.offer(report);
+
+        if (queued.get() >= batchSize && drainScheduled.compareAndSet(false, true)) {
+            executor.execute(this::drainSafely);
+        }
+        return true;
+    }
+
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    private void drainSafely() {
+        drainScheduled.set(false);
+        try {
+            drain();
+            replay();
+        } catch (Exception e) {
+            // Keep the scheduled flush alive whatever happens
+            logger.warn("Error report flush failed: {}", e.getMessage());
+        }
+    }
+
+    private void drain() {
+        List<EncodedReport> batch = new ArrayList<>(batchSize);
+        while (true) {
+            Map<String, Object> report;
+            while (batch.size() < batchSize && (report = queue.poll()) != null) {
+                queued.decrementAndGet();
+                byte[] encoded = encode(report);
+                if (encoded != null) {
+                    batch.add(new EncodedReport((String) report.get("channel"), encoded));
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            deliver(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    private void deliver(List<EncodedReport> batch) {
+        if (!batchEnabled && batch.size() > 1) {
+            for (EncodedReport report : batch) {
+                deliver(List.of(report));
+            }
+            return;
+        }
+        synchronized (this) {
+            if (monitorFailing && spool.isAvailable()) {
+                // Don't wait out another timeout; replay picks these up once the monitor is back
+                toSpool(batch);
+                return;
+            }
+        }
+        try {
+            post(batch);
+            sent.increment(batch.size());
+            logger.debug("Sent {} error reports to monitoring system", batch.size());
+        } catch (HttpClientErrorException e) {
+            failed.increment(batch.size());
+            logger.warn("Error monitor rejected {} error reports: {}", batch.size(), e.getMessage());
+        } catch (Exception e) {
+            logger.warn("Failed to send {} error reports to monitoring system: {}", batch.size(), e.getMessage());
+            synchronized (this) {
+                onMonitorFailure();
+                toSpool(batch);
+            }
+        }
+    }
+
+    /**
+     * Send the oldest spooled reports if the backoff has elapsed, until the spool
+     * is empty or the monitor fails again
+     */
+    private synchronized void replay() {
+        if (spool.size() == 0 || System.currentTimeMillis() < nextReplayAt) {
+            return;
+        }
+        while (true) {
+            ErrorReportSpool.Batch batch = spool.peek(batchEnabled ? batchSize : 1);
+            if (batch.isEmpty()) {
+                if (monitorFailing) {
+                    logger.info("Error monitor reachable again, spool replayed");
+                }
+                monitorFailing = false;
+                backoffMs = 0;
+                return;
+            }
+            List<EncodedReport> reports = new ArrayList<>(batch.getReports().size());
+            for (byte[] record : batch.getReports()) {
+                reports.add(EncodedReport.fromSpoolRecord(record));
+            }
+            try {
+                post(reports);
+                sent.increment(batch.getReports().size());
+            } catch (HttpClientErrorException e) {
+                // The monitor is up but won't take these; drop them rather than block the spool
+                failed.increment(batch.getReports().size());
+                logger.warn("Error monitor rejected {} spooled error reports: {}", batch.getReports().size(),
+                    e.getMessage());
+            } catch (Exception e) {
+                onMonitorFailure();
+                logger.debug("Spool replay failed, next attempt in {} ms: {}", backoffMs, e.getMessage());
+                return;
+            }
+            spool.commit(batch);
+        }
+    }
+
+    private void onMonitorFailure() {
+        monitorFailing = true;
+        backoffMs = backoffMs == 0 ? initialBackoffMs : Math.min(backoffMs * 2, maxBackoffMs);
+        nextReplayAt = System.currentTimeMillis() + backoffMs;
+    }
+
+    private void toSpool(List<EncodedReport> batch) {
+        for (EncodedReport report : batch) {
+            if (spool.append(report.toSpoolRecord())) {
+                spooled.increment();
+            } else {
+                failed.increment();
+            }
+        }
+    }
+
+    private void post(List<EncodedReport> reports) {
+        if (!batchEnabled) {
+            for (EncodedReport report : reports) {
+                post(channelPath(report.channel), report.json);
+            }
+            return;
+        }
+        // Reports are already JSON, so the body is assembled rather than re-serialized
+        ByteArrayOutputStream body = new ByteArrayOutputStream(reports.size() * 1024 + 64);
+        body.writeBytes(BATCH_PREFIX);
+        for (int i = 0; i < reports.size(); i++) {
+            if (i > 0) {
+                body.write(',');
+            }
+            body.writeBytes(reports.get(i).json);
+        }
+        body.writeBytes(BATCH_SUFFIX);
+        post(batchPath, body.toByteArray());
+        batchSizes.record(reports.size());
+    }
+
+    private void post(String path, byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        long start = System.nanoTime();
+        try {
+            errorMonitorRestTemplate.postForObject(path, new HttpEntity<>(body, headers), String.class);
+            postSucceeded.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (RuntimeException e) {
+            postFailed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    /**
+     * The monitor's endpoint for a report's channel: /api/errors/report for runtime
+     * errors, /api/errors/report/{channel} for the others
+     */
+    private String channelPath(String channel) {
+        return channel == null || channel.equals("runtime") ? reportPath : reportPath + "/" + channel;
+    }
+
+    private Timer postTimer(String outcome) {
+        return Timer.builder("error.reports.dispatch")
+            .description("Latency of POSTs to the error monitor")
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    private byte[] encode(Map<String, Object> report) {
+        try {
+            return objectMapper.writeValueAsBytes(report);
+        } catch (JsonProcessingException e) {
+            failed.increment();
+            logger.warn("Unserializable error report dropped: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                // Last chance for whatever is still queued
+                drain();
+            } else {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * An encoded report and its channel, kept together so routing never re-parses
+     * the JSON. Spool records are the channel, a newline, then the JSON.
+     */
+    private static final class EncodedReport {
+        final String channel;
+        final byte[] json;
+
+        EncodedReport(String channel, byte[] json) {
+            this.channel = channel;
+            this.json = json;
+        }
+
+        byte[] toSpoolRecord() {
+            byte[] prefix = (channel + "\n").getBytes(StandardCharsets.UTF_8);
+            byte[] record = Arrays.copyOf(prefix, prefix.length + json.length);
+            System.arraycopy(json, 0, record, prefix.length, json.length);
+            return record;
+        }
+
+        static EncodedReport fromSpoolRecord(byte[] record) {
+            for (int i = 0; i < record.length; i++) {
+                if (record[i] == '\n') {
+                    return new EncodedReport(new String(record, 0, i, StandardCharsets.UTF_8),
+                        Arrays.copyOfRange(record, i + 1, record.length));
+                }
+            }
+            return new EncodedReport("runtime", record);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.aliifishmarket.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local spool for error reports the monitor could not take.
+ *
+ * A fixed-size memory-mapped file used as a ring of length-prefixed records:
+ * appending is a couple of memory copies, and when the ring is full the oldest
+ * reports are overwritten, so the file never grows past max-bytes. Head and tail
+ * positions live in the file header, so undelivered reports survive a restart.
+ * Only ErrorReportDispatcher's threads touch it, never request threads.
+ *
+ * Layout: 64-byte header (magic, version, capacity, head, tail) followed by the
+ * data region. Head and tail are absolute byte positions; a position maps to
+ * HEADER_SIZE + position % capacity, and records may wrap around the end.
+ */
+@Service
+public class ErrorReportSpool {
+
+    private static final Logger logger = LoggerFactory.getLogger(ErrorReportSpool.class);
+
+    private static final int MAGIC = 0x414C5350;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int HEAD_OFFSET = 16;
+    private static final int TAIL_OFFSET = 24;
+    private static final int LENGTH_BYTES = 4;
+
+    @Value("${app.error-monitor.spool.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.error-monitor.spool.path:logs/error-report-spool.dat}")
+    private String path;
+
+    @Value("${app.error-monitor.spool.max-bytes:8388608}")
+    private long maxBytes;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long capacity;
+    private long head;
+    private long tail;
+    private int records;
+    private long overwritten;
+
+    @PostConstruct
+    public synchronized void open() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Path file = Path.of(path).toAbsolutePath();
+            Files.createDirectories(file.getParent());
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            capacity = Math.max(4096, Math.min(maxBytes, Integer.MAX_VALUE) - HEADER_SIZE);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + capacity);
+
+            if (buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION && buffer.getLong(CAPACITY_OFFSET) == capacity
+                    && recover()) {
+                if (records > 0) {
+                    logger.info("Error report spool has {} undelivered reports from a previous run", records);
+                }
+            } else {
+                reset();
+            }
+        } catch (IOException e) {
+            logger.warn("Error report spool unavailable at {}: {}", path, e.getMessage());
+            buffer = null;
+        }
+    }
+
+    public boolean isAvailable() {
+        return buffer != null;
+    }
+
+    /**
+     * Append one encoded report, overwriting the oldest ones if the ring is full.
+     * Returns false if the spool is unavailable or the report can never fit.
+     */
+    public synchronized boolean append(byte[] report) {
+        long needed = LENGTH_BYTES + (long) report.length;
+        if (buffer == null || needed > capacity / 2) {
+            return false;
+        }
+        while (tail - head + needed > capacity) {
+            head += LENGTH_BYTES + readLength(head);
+            records--;
+            overwritten++;
+        }
+        write(tail, intBytes(report.length));
+        write(tail + LENGTH_BYTES, report);
+        tail += needed;
+        records++;
+        // Data first, then the positions that make it visible
+        buffer.putLong(HEAD_OFFSET, head);
+        buffer.putLong(TAIL_OFFSET, tail);
+        return true;
+    }
+
+    /**
+     * Oldest reports without removing them; pass the batch to {@link #commit} once delivered
+     */
+    public synchronized Batch peek(int maxRecords) {
+        List<byte[]> reports = new ArrayList<>(Math.min(maxRecords, records));
+        long position = head;
+        while (reports.size() < maxRecords && position < tail) {
+            int length = readLength(position);
+            byte[] report = new byte[length];
+            read(position + LENGTH_BYTES, report);
+            reports.add(report);
+            position += LENGTH_BYTES + length;
+        }
+        return new Batch(head, position, reports);
+    }
+
+    /**
+     * Drop a delivered batch, or whatever the ring has not already overwritten of it
+     */
+    public synchronized void commit(Batch batch) {
+        if (buffer == null || batch.to <= head) {
+            return;
+        }
+        if (batch.from == head) {
+            records -= batch.reports.size();
+        } else {
+            for (long position = head; position < batch.to; records--) {
+                position += LENGTH_BYTES + readLength(position);
+            }
+        }
+        head = batch.to;
+        buffer.putLong(HEAD_OFFSET, head);
+    }
+
+    public synchronized int size() {
+        return records;
+    }
+
+    public synchronized long getOverwrittenCount() {
+        return overwritten;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (buffer == null) {
+            return;
+        }
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close error report spool: {}", e.getMessage());
+        }
+        buffer = null;
+    }
+
+    /**
+     * Validate the positions and count records left by a previous run
+     */
+    private boolean recover() {
+        head = buffer.getLong(HEAD_OFFSET);
+        tail = buffer.getLong(TAIL_OFFSET);
+        if (head < 0 || tail < head || tail - head > capacity) {
+            return false;
+        }
+        records = 0;
+        for (long position = head; position < tail; records++) {
+            int length = readLength(position);
+            if (length < 0 || position + LENGTH_BYTES + length > tail) {
+                return false;
+            }
+            position += LENGTH_BYTES + length;
+        }
+        return true;
+    }
+
+    private void reset() {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putLong(CAPACITY_OFFSET, capacity);
+        head = 0;
+        tail = 0;
+        records = 0;
+        buffer.putLong(HEAD_OFFSET, head);
+        buffer.putLong(TAIL_OFFSET, tail);
+    }
+
+    private int readLength(long position) {
+        byte[] bytes = new byte[LENGTH_BYTES];
+        read(position, bytes);
+        return (bytes[0] & 0xff) << 24 | (bytes[1] & 0xff) << 16 | (bytes[2] & 0xff) << 8 | (bytes[3] & 0xff);
+    }
+
+    private static byte[] intBytes(int value) {
+        return new byte[] { (byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value };
+    }
+
+    private void write(long position, byte[] bytes) {
+        int offset = (int) (position % capacity);
+        int first = (int) Math.min(bytes.length, capacity - offset);
+        buffer.put(HEADER_SIZE + offset, bytes, 0, first);
+        if (first < bytes.length) {
+            buffer.put(HEADER_SIZE, bytes, first, bytes.length - first);
+        }
+    }
+
+    private void read(long position, byte[] bytes) {
+        int offset = (int) (position % capacity);
+        int first = (int) Math.min(bytes.length, capacity - offset);
+        buffer.get(HEADER_SIZE + offset, bytes, 0, first);
+        if (first < bytes.length) {
+            buffer.get(HEADER_SIZE, bytes, first, bytes.length - first);
+        }
+    }
+
+    /**
+     * Reports read from the spool, still owned by it until committed
+     */
+    public static final class Batch {
+        private final long from;
+        private final long to;
+        private final List<byte[]> reports;
+
+        Batch(long from, long to, List<byte[]> reports) {
+            this.from = from;
+            this.to = to;
+            this.reports = reports;
+        }
+
+        public List<byte[]> getReports() { return reports; }
+        public boolean isEmpty() { return reports.isEmpty(); }
+    }
+}
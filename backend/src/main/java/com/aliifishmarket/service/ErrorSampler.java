@@ -0,0 +1,171 @@
+package com.aliifishmarket.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Adaptive sampling of error reports by fingerprint.
+ *
+ * The first few occurrences of a fingerprint are reported in full. After that
+ * occurrences are only counted, and one aggregate report per fingerprint is sent
+ * each interval with the count since the last report. A fingerprint that stays
+ * quiet long enough is forgotten, so a regression is reported in full again.
+ * The number of tracked fingerprints is bounded by an access-ordered LRU, so
+ * when it is full the one seen least recently is evicted in constant time on
+ * the reporting thread.
+ */
+@Service
+public class ErrorSampler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ErrorSampler.class);
+
+    @Autowired
+    private ErrorReportDispatcher errorReportDispatcher;
+
+    @Autowired
+    private StackTraceEncoder stackTraceEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.error-monitor.sampling.first-occurrences:5}")
+    private int firstOccurrences;
+
+    @Value("${app.error-monitor.sampling.max-fingerprints:1000}")
+    private int maxFingerprints;
+
+    @Value("${app.error-monitor.sampling.idle-reset-ms:600000}")
+    private long idleResetMs;
+
+    // Access order, guarded by itself
+    private final Map<String, Occurrences> occurrences = new LinkedHashMap<>(64, 0.75f, true);
+
+    private Counter suppressed;
+
+    @PostConstruct
+    public void init() {
+        suppressed = meterRegistry.counter("error.reports", "outcome", "sampled_out");
+        meterRegistry.gaugeMapSize("error.fingerprints", Tags.empty(), occurrences);
+    }
+
+    /**
+     * Count one occurrence and return its number if it should be reported in
+     * full, or 0 if it is only counted towards the next aggregate
+     */
+    public long record(ErrorFingerprint fingerprint, String channel, String type) {
+        Occurrences entry;
+        Occurrences evicted = null;
+        synchronized (occurrences) {
+            entry = occurrences.get(fingerprint.getId());
+            if (entry == null) {
+                if (occurrences.size() >= maxFingerprints) {
+                    Iterator<Occurrences> leastRecent = occurrences.values().iterator();
+                    evicted = leastRecent.next();
+                    leastRecent.remove();
+                }
+                entry = new Occurrences(fingerprint, channel, type);
+                occurrences.put(fingerprint.getId(), entry);
+            }
+        }
+        if (evicted != null) {
+            onEvicted(evicted);
+        }
+
+        entry.lastSeen = System.currentTimeMillis();
+        long occurrence = entry.total.incrementAndGet();
+        if (occurrence <= firstOccurrences) {
+            return occurrence;
+        }
+        entry.unreported.incrementAndGet();
+        suppressed.increment();
+        return 0;
+    }
+
+    /**
+     * Send one aggregate per fingerprint with occurrences since the last report,
+     * and forget fingerprints that have gone quiet
+     */
+    @Scheduled(fixedDelayString = "${app.error-monitor.sampling.aggregate-interval-ms:60000}")
+    public void flushAggregates() {
+        long now = System.currentTimeMillis();
+        List<Occurrences> active = new ArrayList<>();
+        synchronized (occurrences) {
+            Iterator<Occurrences> iterator = occurrences.values().iterator();
+            while (iterator.hasNext()) {
+                Occurrences entry = iterator.next();
+                if (entry.unreported.get() > 0) {
+                    active.add(entry);
+                } else if (now - entry.lastSeen > idleResetMs) {
+                    iterator.remove();
+                }
+            }
+        }
+        // Reports are built outside the lock so record() is never held up by them
+        for (Occurrences entry : active) {
+            long unreported = entry.unreported.getAndSet(0);
+            if (unreported > 0) {
+                errorReportDispatcher.submit(entry.channel, aggregateReport(entry, unreported, now));
+            }
+        }
+    }
+
+    private Map<String, Object> aggregateReport(Occurrences entry, long unreported, long now) {
+        Map<String, Object> report = new HashMap<>();
+        report.put("timestamp", Instant.ofEpochMilli(now).toString());
+        report.put("type", entry.type);
+        report.put("aggregate", true);
+        report.put("fingerprint", entry.fingerprint.getId());
+        report.put("exceptionType", entry.fingerprint.getExceptionType());
+        report.put("message", entry.fingerprint.getNormalizedMessage());
+        report.put("count", unreported);
+        report.put("totalCount", entry.total.get());
+        report.put("firstSeen", Instant.ofEpochMilli(entry.firstSeen).toString());
+        report.put("lastSeen", Instant.ofEpochMilli(entry.lastSeen).toString());
+        report.put("stackTrace", stackTraceEncoder.getCached(entry.fingerprint));
+        report.put("service", "alii-backend");
+        return report;
+    }
+
+    private void onEvicted(Occurrences evicted) {
+        long unreported = evicted.unreported.getAndSet(0);
+        if (unreported > 0) {
+            // Don't lose the count just because the map is full
+            errorReportDispatcher.submit(evicted.channel,
+                aggregateReport(evicted, unreported, System.currentTimeMillis()));
+        }
+        logger.debug("Evicted error fingerprint {}", evicted.fingerprint.getId());
+    }
+
+    private static final class Occurrences {
+        final ErrorFingerprint fingerprint;
+        final String channel;
+        final String type;
+        final long firstSeen = System.currentTimeMillis();
+        final AtomicLong total = new AtomicLong();
+        final AtomicLong unreported = new AtomicLong();
+        volatile long lastSeen = firstSeen;
+
+        Occurrences(ErrorFingerprint fingerprint, String channel, String type) {
+            this.fingerprint = fingerprint;
+            this.channel = channel;
+            this.type = type;
+        }
+    }
+}
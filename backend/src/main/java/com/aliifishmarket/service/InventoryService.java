@@ -0,0 +1,379 @@
+package com.aliifishmarket.service;
+
+import com.aliifishmarket.exception.InsufficientStockException;
+import com.aliifishmarket.service.MenuSnapshotService.MenuItemView;
+import com.aliifishmarket.service.MenuSnapshotService.MenuSnapshotChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contention-free stock reservation for MenuItem.currentStock.
+ *
+ * Each tracked item keeps its available stock in striped in-memory counters, so
+ * concurrent orders for the same poke bowl rarely touch the same cache line and
+ * never take a row lock. Reservations fail fast when stock is exhausted. The
+ * net change since the last flush (counter level minus flushed level) is written
+ * to menu_items periodically in one batched UPDATE, and the counters are rebuilt
+ * from the database on startup. Since the delta is derived from the counters, a
+ * reservation is a single update and cannot be split by a concurrent setStock.
+ * These writes bypass JPA, so the menu snapshot is rebuilt here whenever an item
+ * sells out or comes back into stock.
+ *
+ * Items with a null current_stock are untracked and always available, matching
+ * MenuItem.isInStock(). Absolute stock changes should go through {@link #setStock}
+ * so they are ordered with pending deltas.
+ */
+@Service
+public class InventoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryService.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LowStockMonitor lowStockMonitor;
+
+    @Autowired
+    private MenuSnapshotService menuSnapshotService;
+
+    @Value("${app.inventory.stripes:0}")
+    private int configuredStripes;
+
+    private final Map<Long, StockCounter> counters = new ConcurrentHashMap<>();
+
+    private final Object flushLock = new Object();
+
+    /**
+     * Rebuild counters from the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadCounters() {
+        synchronized (flushLock) {
+            counters.clear();
+            jdbcTemplate.query("SELECT id, current_stock, minimum_stock FROM menu_items WHERE current_stock IS NOT NULL",
+                rs -> {
+                    long id = rs.getLong("id");
+                    counters.put(id, new StockCounter(stripes(), rs.getInt("current_stock"),
+                        rs.getObject("minimum_stock", Integer.class)));
+                });
+        }
+        counters.forEach(this::checkLowStock);
+        logger.info("Inventory counters loaded for {} tracked menu items", counters.size());
+    }
+
+    /**
+     * Reserve stock for an order line, failing fast if not enough is left
+     */
+    public void reserve(Long menuItemId, int quantity) {
+        requirePositive(quantity);
+        StockCounter counter = getCounter(menuItemId);
+        if (counter == null) {
+            return;
+        }
+
+        if (!counter.stock.tryTake(quantity)) {
+            throw new InsufficientStockException(menuItemId, quantity, (int) counter.stock.sum());
+        }
+        checkLowStock(menuItemId, counter);
+    }
+
+    /**
+     * Return previously reserved stock (cancelled order, voided line)
+     */
+    public void release(Long menuItemId, int quantity) {
+        adjust(menuItemId, quantity);
+    }
+
+    /**
+     * Add delivered stock
+     */
+    public void restock(Long menuItemId, int quantity) {
+        adjust(menuItemId, quantity);
+    }
+
+    /**
+     * Set the absolute stock level, e.g. after a physical count
+     */
+    public void setStock(Long menuItemId, int stock) {
+        if (stock < 0) {
+            throw new IllegalArgumentException("Stock must not be negative: " + stock);
+        }
+        synchronized (flushLock) {
+            int updated = jdbcTemplate.update("UPDATE menu_items SET current_stock = ? WHERE id = ?", stock, menuItemId);
+            if (updated == 0) {
+                throw new IllegalArgumentException("Menu item not found: " + menuItemId);
+            }
+            StockCounter counter = counters.get(menuItemId);
+            if (counter == null) {
+                Integer minimum = jdbcTemplate.queryForObject(
+                    "SELECT minimum_stock FROM menu_items WHERE id = ?", Integer.class, menuItemId);
+                counter = new StockCounter(stripes(), stock, minimum);
+                counters.put(menuItemId, counter);
+            } else {
+                // The count supersedes any unflushed changes
+                counter.stock.reset(stock);
+                counter.flushedLevel = stock;
+            }
+            checkLowStock(menuItemId, counter);
+        }
+        menuSnapshotService.requestRebuild();
+    }
+
+    @EventListener
+    public void onMenuSnapshotChanged(MenuSnapshotChangedEvent event) {
+        for (MenuItemView item : event.getCurrent().getItems()) {
+            StockCounter counter = counters.get(item.getId());
+            if (counter != null && !Objects.equals(counter.minimumStock, item.getMinimumStock())) {
+                counter.minimumStock = item.getMinimumStock();
+                checkLowStock(item.getId(), counter);
+            }
+        }
+    }
+
+    /**
+     * Current in-memory available stock, or null when the item is untracked
+     */
+    public Integer getAvailableStock(Long menuItemId) {
+        StockCounter counter = getCounter(menuItemId);
+        return counter != null ? (int) counter.stock.sum() : null;
+    }
+
+    /**
+     * Write the net change since the last flush to menu_items in one batch
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.flush-interval-ms:2000}")
+    public void flush() {
+        synchronized (flushLock) {
+            List<Object[]> batch = new ArrayList<>();
+            List<StockCounter> flushed = new ArrayList<>();
+            List<Long> levels = new ArrayList<>();
+            for (Map.Entry<Long, StockCounter> entry : counters.entrySet()) {
+                StockCounter counter = entry.getValue();
+                long level = counter.stock.sum();
+                long delta = level - counter.flushedLevel;
+                if (delta != 0) {
+                    batch.add(new Object[] { delta, entry.getKey() });
+                    flushed.add(counter);
+                    levels.add(level);
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            try {
+                jdbcTemplate.batchUpdate("UPDATE menu_items SET current_stock = current_stock + ? WHERE id = ?", batch);
+                logger.debug("Flushed stock deltas for {} menu items", batch.size());
+            } catch (Exception e) {
+                // Flushed levels stay as they were, so the next flush retries the same deltas
+                logger.error("Failed to flush stock deltas: {}", e.getMessage(), e);
+                return;
+            }
+            boolean inStockChanged = false;
+            for (int i = 0; i < flushed.size(); i++) {
+                StockCounter counter = flushed.get(i);
+                long level = levels.get(i);
+                inStockChanged |= (counter.flushedLevel > 0) != (level > 0);
+                counter.flushedLevel = level;
+            }
+            if (inStockChanged) {
+                // Sold out or back in stock: MenuItemView.inStock and the menu ETag change
+                menuSnapshotService.requestRebuild();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void adjust(Long menuItemId, int quantity) {
+        requirePositive(quantity);
+        StockCounter counter = getCounter(menuItemId);
+        if (counter == null) {
+            return;
+        }
+        counter.stock.add(quantity);
+        checkLowStock(menuItemId, counter);
+    }
+
+    private void checkLowStock(Long menuItemId, StockCounter counter) {
+        try {
+            lowStockMonitor.onStockChanged(menuItemId, counter.stock::sum, counter.minimumStock);
+        } catch (Exception e) {
+            // Alerting must never fail a reservation
+            logger.warn("Low-stock check failed for menu item {}: {}", menuItemId, e.getMessage());
+        }
+    }
+
+    private StockCounter getCounter(Long menuItemId) {
+        StockCounter counter = counters.get(menuItemId);
+        if (counter != null) {
+            return counter;
+        }
+
+        // Item created after startup: load it once
+        synchronized (flushLock) {
+            counter = counters.get(menuItemId);
+            if (counter == null) {
+                List<StockCounter> loaded = jdbcTemplate.query(
+                    "SELECT current_stock, minimum_stock FROM menu_items WHERE id = ? AND current_stock IS NOT NULL",
+                    (rs, rowNum) -> new StockCounter(stripes(), rs.getInt("current_stock"),
+                        rs.getObject("minimum_stock", Integer.class)),
+                    menuItemId);
+                if (loaded.isEmpty()) {
+                    return null;
+                }
+                counter = loaded.get(0);
+                counters.put(menuItemId, counter);
+            }
+            return counter;
+        }
+    }
+
+    private int stripes() {
+        int stripes = configuredStripes > 0 ? configuredStripes : Runtime.getRuntime().availableProcessors();
+        return Integer.highestOneBit(Math.max(1, Math.min(stripes, 16)));
+    }
+
+    private static void requirePositive(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive: " + quantity);
+        }
+    }
+
+    // Counters
+
+    static final class StockCounter {
+        final StripedStock stock;
+        // Level last written to menu_items, guarded by flushLock
+        long flushedLevel;
+        volatile Integer minimumStock;
+
+        StockCounter(int stripes, long available, Integer minimumStock) {
+            this.stock = new StripedStock(stripes, available);
+            this.flushedLevel = available;
+            this.minimumStock = minimumStock;
+        }
+    }
+
+    /**
+     * Stock split across padded atomic cells. A reservation that fits in the calling
+     * thread's home cell is one CAS there. Otherwise it walks all cells under the
+     * counter's lock, so two multi-cell reservations never each drain part of the
+     * stock and both give up while there would have been enough for one of them.
+     */
+    static final class StripedStock {
+        // One cell per 64-byte cache line
+        private static final int PAD = 8;
+
+        private final AtomicLongArray cells;
+        private final int mask;
+
+        StripedStock(int stripes, long available) {
+            this.cells = new AtomicLongArray(stripes * PAD);
+            this.mask = stripes - 1;
+            reset(available);
+        }
+
+        boolean tryTake(int quantity) {
+            int index = homeStripe() * PAD;
+            while (true) {
+                long current = cells.get(index);
+                if (current < quantity) {
+                    return tryTakeAcrossStripes(quantity);
+                }
+                if (cells.compareAndSet(index, current, current - quantity)) {
+                    return true;
+                }
+            }
+        }
+
+        private synchronized boolean tryTakeAcrossStripes(int quantity) {
+            int home = homeStripe();
+            long remaining = quantity;
+            long[] taken = null;
+
+            for (int i = 0; i <= mask && remaining > 0; i++) {
+                int stripe = (home + i) & mask;
+                int index = stripe * PAD;
+                while (true) {
+                    long current = cells.get(index);
+                    if (current <= 0) {
+                        break;
+                    }
+                    long take = Math.min(current, remaining);
+                    if (cells.compareAndSet(index, current, current - take)) {
+                        remaining -= take;
+                        if (remaining > 0) {
+                            if (taken == null) {
+                                taken = new long[mask + 1];
+                            }
+                            taken[stripe] += take;
+                        }
+                        break;
+                    }
+                }
+            }
+
+            if (remaining == 0) {
+                return true;
+            }
+
+            // Not enough across all stripes: give back what was taken
+            if (taken != null) {
+                for (int stripe = 0; stripe < taken.length; stripe++) {
+                    if (taken[stripe] > 0) {
+                        cells.addAndGet(stripe * PAD, taken[stripe]);
+                    }
+                }
+            }
+            return false;
+        }
+
+        void add(long quantity) {
+            cells.addAndGet(homeStripe() * PAD, quantity);
+        }
+
+        long sum() {
+            long sum = 0;
+            for (int stripe = 0; stripe <= mask; stripe++) {
+                sum += cells.get(stripe * PAD);
+            }
+            return sum;
+        }
+
+        // Locked so a reset can't land between a multi-cell take and its rollback
+        synchronized void reset(long available) {
+            int stripes = mask + 1;
+            // Floor division, so a negative level still sums back to itself
+            long share = Math.floorDiv(available, stripes);
+            long extra = Math.floorMod(available, stripes);
+            for (int stripe = 0; stripe < stripes; stripe++) {
+                cells.set(stripe * PAD, share + (stripe < extra ? 1 : 0));
+            }
+        }
+
+        private int homeStripe() {
+            long id = Thread.currentThread().getId();
+            return (int) (id ^ (id >>> 16)) * 0x9E3779B9 >>> 16 & mask;
+        }
+    }
+}
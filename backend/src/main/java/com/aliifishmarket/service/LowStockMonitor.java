@@ -0,0 +1,153 @@
+package com.aliifishmarket.service;
+
+import com.aliifishmarket.service.MenuSnapshotService.MenuItemView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Detects when an item's stock crosses its minimum, instead of scanning every
+ * MenuItem for isLowStock(). InventoryService reports each stock change here;
+ * an item enters the low-stock list when available <= minimum and leaves it only
+ * once available > minimum + hysteresis, so stock bouncing around the threshold
+ * raises a single alert. Each crossing publishes exactly one LowStockEvent.
+ */
+@Service
+public class LowStockMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(LowStockMonitor.class);
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MenuSnapshotService menuSnapshotService;
+
+    @Value("${app.inventory.low-stock.hysteresis:2}")
+    private int hysteresis;
+
+    private final Map<Long, LowStockItem> lowStockItems = new ConcurrentHashMap<>();
+
+    /**
+     * Evaluate an item's stock after a change. Cheap when nothing crosses.
+     * The level is read here rather than passed in: whenever this call adds or
+     * removes the item's entry it reads the level again, so a concurrent change
+     * that was checked against the old entry can't leave the item on the wrong list.
+     */
+    public void onStockChanged(Long menuItemId, LongSupplier level, Integer minimumStock) {
+        long available = level.getAsLong();
+        while (evaluate(menuItemId, available, minimumStock)) {
+            available = level.getAsLong();
+        }
+    }
+
+    /**
+     * Forget an item, e.g. when it stops being tracked
+     */
+    public void clear(Long menuItemId, long available) {
+        remove(menuItemId, available);
+    }
+
+    /**
+     * Items currently below their minimum, oldest alert first
+     */
+    public List<LowStockItem> getLowStockItems() {
+        List<LowStockItem> items = new ArrayList<>(lowStockItems.values());
+        items.sort(Comparator.comparing(LowStockItem::getSince));
+        return items;
+    }
+
+    /**
+     * Apply one reading; true if it added or removed the item's entry
+     */
+    private boolean evaluate(Long menuItemId, long available, Integer minimumStock) {
+        if (minimumStock == null || available > (long) minimumStock + hysteresis) {
+            return lowStockItems.containsKey(menuItemId) && remove(menuItemId, available);
+        }
+        if (available > minimumStock || lowStockItems.containsKey(menuItemId)) {
+            return false;
+        }
+        LowStockItem item = new LowStockItem(menuItemId, itemName(menuItemId), available, minimumStock, Instant.now());
+        if (lowStockItems.putIfAbsent(menuItemId, item) != null) {
+            return false;
+        }
+        logger.info("Menu item {} ({}) is low on stock: {} left, minimum {}",
+            menuItemId, item.getName(), available, minimumStock);
+        eventPublisher.publishEvent(new LowStockEvent(item, LowStockEvent.Type.LOW));
+        return true;
+    }
+
+    private boolean remove(Long menuItemId, long available) {
+        LowStockItem removed = lowStockItems.remove(menuItemId);
+        if (removed == null) {
+            return false;
+        }
+        logger.info("Menu item {} ({}) restocked to {}", menuItemId, removed.getName(), available);
+        LowStockItem recovered = new LowStockItem(menuItemId, removed.getName(), available,
+            removed.getMinimumStock(), Instant.now());
+        eventPublisher.publishEvent(new LowStockEvent(recovered, LowStockEvent.Type.RECOVERED));
+        return true;
+    }
+
+    private String itemName(Long menuItemId) {
+        try {
+            MenuItemView item = menuSnapshotService.getSnapshot().getItem(menuItemId);
+            return item != null ? item.getName() : "#" + menuItemId;
+        } catch (Exception e) {
+            return "#" + menuItemId;
+        }
+    }
+
+    // Alert classes
+
+    public static class LowStockItem {
+        private final Long menuItemId;
+        private final String name;
+        private final long available;
+        private final int minimumStock;
+        private final Instant since;
+
+        public LowStockItem(Long menuItemId, String name, long available, int minimumStock, Instant since) {
+            this.menuItemId = menuItemId;
+            this.name = name;
+            this.available = available;
+            this.minimumStock = minimumStock;
+            this.since = since;
+        }
+
+        public Long getMenuItemId() { return menuItemId; }
+        public String getName() { return name; }
+        public long getAvailable() { return available; }
+        public int getMinimumStock() { return minimumStock; }
+        public Instant getSince() { return since; }
+    }
+
+    /**
+     * Published once per threshold crossing
+     */
+    public static class LowStockEvent {
+        public enum Type { LOW, RECOVERED }
+
+        private final LowStockItem item;
+        private final Type type;
+
+        public LowStockEvent(LowStockItem item, Type type) {
+            this.item = item;
+            this.type = type;
+        }
+
+        public LowStockItem getItem() { return item; }
+        public Type getType() { return type; }
+    }
+}
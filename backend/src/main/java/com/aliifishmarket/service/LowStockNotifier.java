@@ -0,0 +1,73 @@
+package com.aliifishmarket.service;
+
+import com.aliifishmarket.model.Staff;
+import com.aliifishmarket.repository.StaffRepository;
+import com.aliifishmarket.service.LowStockMonitor.LowStockEvent;
+import com.aliifishmarket.service.LowStockMonitor.LowStockItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Delivers low-stock alerts to staff off the ordering thread
+ */
+@Service
+public class LowStockNotifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(LowStockNotifier.class);
+
+    @Autowired(required = false)
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private StaffRepository staffRepository;
+
+    @Value("${app.inventory.low-stock.notify-email:false}")
+    private boolean notifyEmail;
+
+    @Value("${app.business.email:orders@aliifishmarket.com}")
+    private String fromAddress;
+
+    @Value("${app.business.name:Ali'i Fish Market}")
+    private String businessName;
+
+    @Async
+    @EventListener
+    public void onLowStock(LowStockEvent event) {
+        if (event.getType() != LowStockEvent.Type.LOW || !notifyEmail || mailSender == null) {
+            return;
+        }
+
+        try {
+            List<String> recipients = staffRepository
+                .findActiveStaffByRoles(List.of(Staff.StaffRole.MANAGER, Staff.StaffRole.ADMIN))
+                .stream()
+                .map(Staff::getEmail)
+                .filter(email -> email != null && !email.isBlank())
+                .toList();
+            if (recipients.isEmpty()) {
+                return;
+            }
+
+            LowStockItem item = event.getItem();
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom(fromAddress);
+            message.setTo(recipients.toArray(new String[0]));
+            message.setSubject(businessName + " - Low stock: " + item.getName());
+            message.setText(item.getName() + " is down to " + item.getAvailable()
+                + " (minimum " + item.getMinimumStock() + "). Please restock.");
+            mailSender.send(message);
+        } catch (Exception e) {
+            logger.warn("Failed to send low-stock alert for menu item {}: {}",
+                event.getItem().getMenuItemId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,426 @@
+package com.aliifishmarket.service;
+
+import com.aliifishmarket.model.MenuItem;
+import com.aliifishmarket.service.MenuSnapshotService.MenuItemView;
+import com.aliifishmarket.service.MenuSnapshotService.MenuSnapshot;
+import com.aliifishmarket.service.MenuSnapshotService.MenuSnapshotChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Inverted index over the menu snapshot. Every allergen, tag, category and spice
+ * level maps to a bitset of item ordinals, so any filter combination resolves with
+ * a handful of AND / ANDNOT operations instead of join-heavy queries.
+ *
+ * Ordinals are stable per menu item. On a snapshot change only the items that were
+ * added, removed or modified are re-indexed; bitsets are copied on write so readers
+ * never observe a half-applied update.
+ */
+@Service
+public class MenuFilterIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuFilterIndex.class);
+
+    @Autowired
+    private MenuSnapshotService menuSnapshotService;
+
+    private volatile IndexState state;
+
+    /**
+     * Resolve a filter against the current index
+     */
+    public FilterResult filter(MenuFilter filter) {
+        IndexState current = getState();
+        BitSet matches = current.evaluate(filter);
+
+        List<MenuItemView> items = new ArrayList<>(matches.cardinality());
+        for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+            items.add(current.items[ordinal]);
+        }
+        // Reused ordinals can break id order; keep results in menu order
+        items.sort(Comparator.comparing(MenuItemView::getId));
+        return new FilterResult(current.source.getVersion(), items);
+    }
+
+    @EventListener
+    public synchronized void onMenuSnapshotChanged(MenuSnapshotChangedEvent event) {
+        IndexState previous = state;
+        if (previous == null || previous.source != event.getPrevious()) {
+            state = IndexState.build(event.getCurrent());
+            return;
+        }
+        state = previous.update(event.getCurrent());
+    }
+
+    private IndexState getState() {
+        IndexState current = state;
+        if (current == null) {
+            synchronized (this) {
+                if (state == null) {
+                    state = IndexState.build(menuSnapshotService.getSnapshot());
+                }
+                current = state;
+            }
+        }
+        return current;
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Index state
+
+    private static final class IndexState {
+        private final MenuSnapshot source;
+        private final MenuItemView[] items;
+        private final Map<Long, Integer> ordinalById;
+        private final BitSet live;
+        private final BitSet popular;
+        private final BitSet inStock;
+        private final Map<String, BitSet> allergens;
+        private final Map<String, BitSet> tags;
+        private final EnumMap<MenuItem.MenuCategory, BitSet> categories;
+        private final EnumMap<MenuItem.SpicyLevel, BitSet> spicyLevels;
+
+        private IndexState(MenuSnapshot source, MenuItemView[] items, Map<Long, Integer> ordinalById,
+                           BitSet live, BitSet popular, BitSet inStock,
+                           Map<String, BitSet> allergens, Map<String, BitSet> tags,
+                           EnumMap<MenuItem.MenuCategory, BitSet> categories,
+                           EnumMap<MenuItem.SpicyLevel, BitSet> spicyLevels) {
+            this.source = source;
+            this.items = items;
+            this.ordinalById = ordinalById;
+            this.live = live;
+            this.popular = popular;
+            this.inStock = inStock;
+            this.allergens = allergens;
+            this.tags = tags;
+            this.categories = categories;
+            this.spicyLevels = spicyLevels;
+        }
+
+        static IndexState build(MenuSnapshot snapshot) {
+            Builder builder = new Builder(null, snapshot.getItems().size());
+            for (MenuItemView item : snapshot.getItems()) {
+                builder.add(item);
+            }
+            return builder.build(snapshot);
+        }
+
+        IndexState update(MenuSnapshot snapshot) {
+            MenuSnapshot previousSnapshot = source;
+            Builder builder = new Builder(this, snapshot.getItems().size());
+            int changed = 0;
+
+            for (MenuItemView old : previousSnapshot.getItems()) {
+                if (snapshot.getItem(old.getId()) == null) {
+                    builder.remove(old);
+                    changed++;
+                }
+            }
+            for (MenuItemView item : snapshot.getItems()) {
+                MenuItemView old = previousSnapshot.getItem(item.getId());
+                if (old == null) {
+                    builder.add(item);
+                    changed++;
+                } else if (!sameIndexedFields(old, item)) {
+                    builder.replace(old, item);
+                    changed++;
+                } else {
+                    // Unchanged for filtering purposes; still point at the newest view
+                    builder.refresh(item);
+                }
+            }
+
+            logger.debug("Menu filter index updated incrementally: {} items re-indexed", changed);
+            return builder.build(snapshot);
+        }
+
+        private static boolean sameIndexedFields(MenuItemView a, MenuItemView b) {
+            return a.getCategory() == b.getCategory()
+                && a.getSpicyLevel() == b.getSpicyLevel()
+                && a.isPopular() == b.isPopular()
+                && a.isInStock() == b.isInStock()
+                && a.getAllergens().equals(b.getAllergens())
+                && a.getTags().equals(b.getTags());
+        }
+
+        BitSet evaluate(MenuFilter filter) {
+            BitSet result = (BitSet) live.clone();
+
+            if (!filter.getCategories().isEmpty()) {
+                BitSet any = new BitSet(items.length);
+                for (MenuItem.MenuCategory category : filter.getCategories()) {
+                    or(any, categories.get(category));
+                }
+                result.and(any);
+            }
+            if (!filter.getSpicyLevels().isEmpty()) {
+                BitSet any = new BitSet(items.length);
+                for (MenuItem.SpicyLevel spicyLevel : filter.getSpicyLevels()) {
+                    or(any, spicyLevels.get(spicyLevel));
+                }
+                result.and(any);
+            }
+            for (String tag : filter.getTags()) {
+                BitSet tagged = tags.get(tag);
+                if (tagged == null) {
+                    result.clear();
+                    return result;
+                }
+                result.and(tagged);
+            }
+            for (String allergen : filter.getExcludedAllergens()) {
+                BitSet containing = allergens.get(allergen);
+                if (containing != null) {
+                    result.andNot(containing);
+                }
+            }
+            if (filter.getPopular() != null) {
+                apply(result, popular, filter.getPopular());
+            }
+            if (filter.getInStock() != null) {
+                apply(result, inStock, filter.getInStock());
+            }
+            return result;
+        }
+
+        private static void or(BitSet target, BitSet bits) {
+            if (bits != null) {
+                target.or(bits);
+            }
+        }
+
+        private static void apply(BitSet result, BitSet bits, boolean wanted) {
+            if (wanted) {
+                result.and(bits);
+            } else {
+                result.andNot(bits);
+            }
+        }
+    }
+
+    /**
+     * Builds a new IndexState, optionally starting from an existing one.
+     * Shared bitsets are cloned the first time they are touched.
+     */
+    private static final class Builder {
+        private MenuItemView[] items;
+        private final Map<Long, Integer> ordinalById;
+        private final BitSet live;
+        private final BitSet popular;
+        private final BitSet inStock;
+        private final Map<String, BitSet> allergens;
+        private final Map<String, BitSet> tags;
+        private final EnumMap<MenuItem.MenuCategory, BitSet> categories;
+        private final EnumMap<MenuItem.SpicyLevel, BitSet> spicyLevels;
+        private final Set<BitSet> owned = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        Builder(IndexState base, int expectedSize) {
+            if (base == null) {
+                items = new MenuItemView[Math.max(expectedSize, 16)];
+                ordinalById = new HashMap<>();
+                live = owned(new BitSet());
+                popular = owned(new BitSet());
+                inStock = owned(new BitSet());
+                allergens = new HashMap<>();
+                tags = new HashMap<>();
+                categories = new EnumMap<>(MenuItem.MenuCategory.class);
+                spicyLevels = new EnumMap<>(MenuItem.SpicyLevel.class);
+            } else {
+                items = Arrays.copyOf(base.items, Math.max(base.items.length, expectedSize));
+                ordinalById = new HashMap<>(base.ordinalById);
+                live = owned((BitSet) base.live.clone());
+                popular = owned((BitSet) base.popular.clone());
+                inStock = owned((BitSet) base.inStock.clone());
+                allergens = new HashMap<>(base.allergens);
+                tags = new HashMap<>(base.tags);
+                categories = new EnumMap<>(base.categories);
+                spicyLevels = new EnumMap<>(base.spicyLevels);
+            }
+        }
+
+        void add(MenuItemView item) {
+            int ordinal = live.nextClearBit(0);
+            if (ordinal >= items.length) {
+                items = Arrays.copyOf(items, Math.max(items.length * 2, ordinal + 1));
+            }
+            ordinalById.put(item.getId(), ordinal);
+            live.set(ordinal);
+            index(ordinal, item, true);
+        }
+
+        void remove(MenuItemView item) {
+            Integer ordinal = ordinalById.remove(item.getId());
+            if (ordinal == null) {
+                return;
+            }
+            index(ordinal, item, false);
+            live.clear(ordinal);
+            items[ordinal] = null;
+        }
+
+        void replace(MenuItemView old, MenuItemView item) {
+            Integer ordinal = ordinalById.get(old.getId());
+            if (ordinal == null) {
+                add(item);
+                return;
+            }
+            index(ordinal, old, false);
+            index(ordinal, item, true);
+        }
+
+        void refresh(MenuItemView item) {
+            Integer ordinal = ordinalById.get(item.getId());
+            if (ordinal == null) {
+                add(item);
+            } else {
+                items[ordinal] = item;
+            }
+        }
+
+        private void index(int ordinal, MenuItemView item, boolean value) {
+            if (value) {
+                items[ordinal] = item;
+            }
+            popular.set(ordinal, value && item.isPopular());
+            inStock.set(ordinal, value && item.isInStock());
+            if (item.getCategory() != null) {
+                writable(categories, item.getCategory()).set(ordinal, value);
+            }
+            if (item.getSpicyLevel() != null) {
+                writable(spicyLevels, item.getSpicyLevel()).set(ordinal, value);
+            }
+            for (String allergen : item.getAllergens()) {
+                writable(allergens, normalize(allergen)).set(ordinal, value);
+            }
+            for (String tag : item.getTags()) {
+                writable(tags, normalize(tag)).set(ordinal, value);
+            }
+        }
+
+        private <K> BitSet writable(Map<K, BitSet> map, K key) {
+            BitSet bits = map.get(key);
+            if (bits == null) {
+                bits = owned(new BitSet());
+                map.put(key, bits);
+            } else if (!owned.contains(bits)) {
+                bits = owned((BitSet) bits.clone());
+                map.put(key, bits);
+            }
+            return bits;
+        }
+
+        private BitSet owned(BitSet bits) {
+            owned.add(bits);
+            return bits;
+        }
+
+        IndexState build(MenuSnapshot source) {
+            allergens.values().removeIf(BitSet::isEmpty);
+            tags.values().removeIf(BitSet::isEmpty);
+            categories.values().removeIf(BitSet::isEmpty);
+            spicyLevels.values().removeIf(BitSet::isEmpty);
+            return new IndexState(source, items, Map.copyOf(ordinalById), live, popular, inStock,
+                Map.copyOf(allergens), Map.copyOf(tags), categories, spicyLevels);
+        }
+    }
+
+    // Filter and result classes
+
+    public static class MenuFilter {
+        private final Set<MenuItem.MenuCategory> categories = new LinkedHashSet<>();
+        private final Set<MenuItem.SpicyLevel> spicyLevels = new LinkedHashSet<>();
+        private final Set<String> tags = new LinkedHashSet<>();
+        private final Set<String> excludedAllergens = new LinkedHashSet<>();
+        private Boolean popular;
+        private Boolean inStock;
+
+        public MenuFilter categories(Collection<MenuItem.MenuCategory> values) {
+            if (values != null) {
+                values.stream().filter(Objects::nonNull).forEach(categories::add);
+            }
+            return this;
+        }
+
+        public MenuFilter spicyLevels(Collection<MenuItem.SpicyLevel> values) {
+            if (values != null) {
+                values.stream().filter(Objects::nonNull).forEach(spicyLevels::add);
+            }
+            return this;
+        }
+
+        public MenuFilter tags(Collection<String> values) {
+            if (values != null) {
+                values.stream().map(MenuFilterIndex::normalize).filter(v -> !v.isEmpty()).forEach(tags::add);
+            }
+            return this;
+        }
+
+        public MenuFilter excludeAllergens(Collection<String> values) {
+            if (values != null) {
+                values.stream().map(MenuFilterIndex::normalize).filter(v -> !v.isEmpty()).forEach(excludedAllergens::add);
+            }
+            return this;
+        }
+
+        public MenuFilter popular(Boolean value) {
+            this.popular = value;
+            return this;
+        }
+
+        public MenuFilter inStock(Boolean value) {
+            this.inStock = value;
+            return this;
+        }
+
+        public boolean isEmpty() {
+            return categories.isEmpty() && spicyLevels.isEmpty() && tags.isEmpty()
+                && excludedAllergens.isEmpty() && popular == null && inStock == null;
+        }
+
+        public Set<MenuItem.MenuCategory> getCategories() { return categories; }
+        public Set<MenuItem.SpicyLevel> getSpicyLevels() { return spicyLevels; }
+        public Set<String> getTags() { return tags; }
+        public Set<String> getExcludedAllergens() { return excludedAllergens; }
+        public Boolean getPopular() { return popular; }
+        public Boolean getInStock() { return inStock; }
+    }
+
+    public static class FilterResult {
+        private final String version;
+        private final List<MenuItemView> items;
+
+        public FilterResult(String version, List<MenuItemView> items) {
+            this.version = version;
+            this.items = items;
+        }
+
+        public String getVersion() { return version; }
+        public List<MenuItemView> getItems() { return items; }
+
+        public String getETag() {
+            return "\"" + version + "\"";
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.aliifishmarket.service;
+
+import com.aliifishmarket.service.MenuSnapshotService.MenuItemView;
+import com.aliifishmarket.service.MenuSnapshotService.MenuSnapshot;
+import com.aliifishmarket.service.MenuSnapshotService.MenuSnapshotChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-process search-as-you-type over menu item names, tags and descriptions.
+ *
+ * Terms are indexed by their character trigrams, so a query token finds candidate
+ * terms by shared trigrams (tolerating typos) or by prefix (tolerating partially
+ * typed words). Matches are weighted by field (name > tags > description) and
+ * popular items get a ranking boost. The index is rebuilt from the menu snapshot
+ * whenever it changes and is never touched by the database on the query path.
+ */
+@Service
+public class MenuSearchIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int TAG_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    @Autowired
+    private MenuSnapshotService menuSnapshotService;
+
+    @Value("${app.menu.search.min-similarity:0.34}")
+    private double minSimilarity;
+
+    @Value("${app.menu.search.popular-boost:1.25}")
+    private double popularBoost;
+
+    private volatile SearchState state;
+
+    /**
+     * Ranked search over the current menu. Every query token must match some term
+     * of an item for it to be returned.
+     */
+    public SearchResult search(String query, int limit) {
+        SearchState current = getState();
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return new SearchResult(current.source.getVersion(), List.of());
+        }
+
+        double[] scores = null;
+        for (int i = 0; i < tokens.size(); i++) {
+            // The last token may still be being typed, so it also matches as a prefix
+            double[] tokenScores = current.scoreToken(tokens.get(i), i == tokens.size() - 1, minSimilarity);
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                for (int ordinal = 0; ordinal < scores.length; ordinal++) {
+                    scores[ordinal] = tokenScores[ordinal] > 0 && scores[ordinal] > 0
+                        ? scores[ordinal] + tokenScores[ordinal]
+                        : 0;
+                }
+            }
+        }
+
+        List<SearchHit> hits = new ArrayList<>();
+        for (int ordinal = 0; ordinal < scores.length; ordinal++) {
+            if (scores[ordinal] > 0) {
+                MenuItemView item = current.items[ordinal];
+                double score = item.isPopular() ? scores[ordinal] * popularBoost : scores[ordinal];
+                hits.add(new SearchHit(item, score));
+            }
+        }
+        hits.sort((a, b) -> {
+            int byScore = Double.compare(b.getScore(), a.getScore());
+            return byScore != 0 ? byScore : a.getItem().getName().compareToIgnoreCase(b.getItem().getName());
+        });
+        return new SearchResult(current.source.getVersion(), hits.size() > limit ? hits.subList(0, limit) : hits);
+    }
+
+    @EventListener
+    public void onMenuSnapshotChanged(MenuSnapshotChangedEvent event) {
+        if (state == null || !state.source.getVersion().equals(event.getCurrent().getVersion())) {
+            state = SearchState.build(event.getCurrent());
+        }
+    }
+
+    private SearchState getState() {
+        SearchState current = state;
+        if (current == null) {
+            synchronized (this) {
+                if (state == null) {
+                    state = SearchState.build(menuSnapshotService.getSnapshot());
+                }
+                current = state;
+            }
+        }
+        return current;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        String[] parts = NON_ALPHANUMERIC.split(folded.toLowerCase(Locale.ROOT));
+        List<String> tokens = new ArrayList<>(parts.length);
+        for (String part : parts) {
+            if (!part.isEmpty()) {
+                tokens.add(part);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Trigrams of a term with boundary markers, e.g. "ahi" -> "$ah", "ahi", "hi$".
+     * Prefix queries omit the trailing boundary so "pok" still matches "poke".
+     */
+    static List<String> trigrams(String term, boolean prefix) {
+        String padded = "$" + term + (prefix ? "" : "$");
+        List<String> grams = new ArrayList<>(padded.length());
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    // Index state
+
+    private static final class SearchState {
+        private final MenuSnapshot source;
+        private final MenuItemView[] items;
+        private final String[] terms;
+        private final int[][] postingItems;
+        private final int[][] postingWeights;
+        private final int[] termGramCounts;
+        private final Map<String, int[]> termsByTrigram;
+
+        private SearchState(MenuSnapshot source, MenuItemView[] items, String[] terms, int[][] postingItems,
+                            int[][] postingWeights, int[] termGramCounts, Map<String, int[]> termsByTrigram) {
+            this.source = source;
+            this.items = items;
+            this.terms = terms;
+            this.postingItems = postingItems;
+            this.postingWeights = postingWeights;
+            this.termGramCounts = termGramCounts;
+            this.termsByTrigram = termsByTrigram;
+        }
+
+        static SearchState build(MenuSnapshot snapshot) {
+            MenuItemView[] items = snapshot.getItems().toArray(new MenuItemView[0]);
+
+            // term -> (item ordinal -> best field weight), terms kept sorted for prefix scans
+            TreeMap<String, Map<Integer, Integer>> postings = new TreeMap<>();
+            for (int ordinal = 0; ordinal < items.length; ordinal++) {
+                MenuItemView item = items[ordinal];
+                addTerms(postings, ordinal, item.getName(), NAME_WEIGHT);
+                for (String tag : item.getTags()) {
+                    addTerms(postings, ordinal, tag, TAG_WEIGHT);
+                }
+                addTerms(postings, ordinal, item.getDescription(), DESCRIPTION_WEIGHT);
+            }
+
+            String[] terms = postings.keySet().toArray(new String[0]);
+            int[][] postingItems = new int[terms.length][];
+            int[][] postingWeights = new int[terms.length][];
+            int[] termGramCounts = new int[terms.length];
+            Map<String, List<Integer>> gramLists = new HashMap<>();
+
+            for (int termId = 0; termId < terms.length; termId++) {
+                Map<Integer, Integer> posting = postings.get(terms[termId]);
+                postingItems[termId] = new int[posting.size()];
+                postingWeights[termId] = new int[posting.size()];
+                int i = 0;
+                for (Map.Entry<Integer, Integer> entry : posting.entrySet()) {
+                    postingItems[termId][i] = entry.getKey();
+                    postingWeights[termId][i] = entry.getValue();
+                    i++;
+                }
+
+                Set<String> grams = new LinkedHashSet<>(trigrams(terms[termId], false));
+                termGramCounts[termId] = grams.size();
+                for (String gram : grams) {
+                    gramLists.computeIfAbsent(gram, g -> new ArrayList<>()).add(termId);
+                }
+            }
+
+            Map<String, int[]> termsByTrigram = new HashMap<>(gramLists.size() * 2);
+            gramLists.forEach((gram, ids) -> termsByTrigram.put(gram, ids.stream().mapToInt(Integer::intValue).toArray()));
+
+            return new SearchState(snapshot, items, terms, postingItems, postingWeights, termGramCounts, termsByTrigram);
+        }
+
+        private static void addTerms(Map<String, Map<Integer, Integer>> postings, int ordinal, String text, int weight) {
+            for (String term : tokenize(text)) {
+                postings.computeIfAbsent(term, t -> new TreeMap<>()).merge(ordinal, weight, Math::max);
+            }
+        }
+
+        /**
+         * Per-item score for one query token: the best (similarity x field weight)
+         * over all terms the token matches.
+         */
+        double[] scoreToken(String token, boolean prefix, double minSimilarity) {
+            double[] scores = new double[items.length];
+
+            // Prefix matches: contiguous range of the sorted term array
+            if (prefix) {
+                int start = Arrays.binarySearch(terms, token);
+                if (start < 0) {
+                    start = -start - 1;
+                }
+                for (int termId = start; termId < terms.length && terms[termId].startsWith(token); termId++) {
+                    double similarity = terms[termId].length() == token.length() ? 1.0 : 0.9;
+                    accumulate(scores, termId, similarity);
+                }
+            }
+
+            // Fuzzy matches: terms sharing enough trigrams with the token
+            if (token.length() >= 3) {
+                List<String> grams = trigrams(token, prefix);
+                Set<String> uniqueGrams = new LinkedHashSet<>(grams);
+                Map<Integer, Integer> shared = new HashMap<>();
+                for (String gram : uniqueGrams) {
+                    int[] termIds = termsByTrigram.get(gram);
+                    if (termIds != null) {
+                        for (int termId : termIds) {
+                            shared.merge(termId, 1, Integer::sum);
+                        }
+                    }
+                }
+                for (Map.Entry<Integer, Integer> entry : shared.entrySet()) {
+                    int termId = entry.getKey();
+                    int common = entry.getValue();
+                    double similarity = (double) common / (uniqueGrams.size() + termGramCounts[termId] - common);
+                    if (similarity >= minSimilarity) {
+                        accumulate(scores, termId, similarity);
+                    }
+                }
+            } else if (!prefix) {
+                int termId = Arrays.binarySearch(terms, token);
+                if (termId >= 0) {
+                    accumulate(scores, termId, 1.0);
+                }
+            }
+            return scores;
+        }
+
+        private void accumulate(double[] scores, int termId, double similarity) {
+            int[] ordinals = postingItems[termId];
+            int[] weights = postingWeights[termId];
+            for (int i = 0; i < ordinals.length; i++) {
+                double score = similarity * weights[i];
+                if (score > scores[ordinals[i]]) {
+                    scores[ordinals[i]] = score;
+                }
+            }
+        }
+    }
+
+    // Result classes
+
+    public static class SearchHit {
+        private final MenuItemView item;
+        private final double score;
+
+        public SearchHit(MenuItemView item, double score) {
+            this.item = item;
+            this.score = score;
+        }
+
+        public MenuItemView getItem() { return item; }
+        public double getScore() { return score; }
+    }
+
+    public static class SearchResult {
+        private final String version;
+        private final List<SearchHit> hits;
+
+        public SearchResult(String version, List<SearchHit> hits) {
+            this.version = version;
+            this.hits = hits;
+        }
+
+        public String getVersion() { return version; }
+        public List<SearchHit> getHits() { return hits; }
+
+        public String getETag() {
+            return "\"" + version + "\"";
+        }
+    }
+}
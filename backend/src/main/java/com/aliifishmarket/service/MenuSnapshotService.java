@@ -0,0 +1,305 @@
+package com.aliifishmarket.service;
+
+import com.aliifishmarket.model.MenuItem;
+import com.aliifishmarket.model.MenuItemListener.MenuItemChangedEvent;
+import com.aliifishmarket.repository.MenuItemRepository;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serves the menu from an immutable, fully materialised in-memory snapshot.
+ * The snapshot is built with three queries (items, allergens, tags) and swapped
+ * atomically after any MenuItem write; bursts of writes coalesce into one rebuild.
+ * The snapshot version is a content hash, so it doubles as a strong ETag.
+ */
+@Service
+public class MenuSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuSnapshotService.class);
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "menu-snapshot-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean rebuildPending = new AtomicBoolean(false);
+
+    private volatile MenuSnapshot current;
+
+    /**
+     * Current menu snapshot, built on first use if the startup build has not run yet
+     */
+    public MenuSnapshot getSnapshot() {
+        MenuSnapshot snapshot = current;
+        if (snapshot == null) {
+            synchronized (this) {
+                if (current == null) {
+                    rebuild();
+                }
+                snapshot = current;
+            }
+        }
+        return snapshot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        requestRebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuItemChanged(MenuItemChangedEvent event) {
+        logger.debug("Menu item {} changed, scheduling snapshot rebuild", event.getMenuItemId());
+        requestRebuild();
+    }
+
+    /**
+     * Schedule a rebuild. Requests arriving while one is pending are folded into it.
+     */
+    public void requestRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                rebuildPending.set(false);
+                try {
+                    synchronized (this) {
+                        rebuild();
+                    }
+                } catch (Exception e) {
+                    logger.error("Failed to rebuild menu snapshot: {}", e.getMessage(), e);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private void rebuild() {
+        List<MenuItemView> items = transactionTemplate.execute(status -> {
+            List<MenuItem> menuItems = menuItemRepository.findAllWithAllergens();
+            // Populates tags on the same managed instances
+            menuItemRepository.findAllWithTags();
+
+            List<MenuItemView> views = new ArrayList<>(menuItems.size());
+            for (MenuItem menuItem : menuItems) {
+                views.add(new MenuItemView(menuItem));
+            }
+            return views;
+        });
+
+        MenuSnapshot previous = current;
+        MenuSnapshot next = new MenuSnapshot(computeVersion(items), Instant.now(), items);
+        if (previous != null && previous.getVersion().equals(next.getVersion())
+                && previous.hasSameStockAs(next)) {
+            return;
+        }
+
+        current = next;
+        logger.info("Menu snapshot {} built with {} items", next.getVersion(), items.size());
+        eventPublisher.publishEvent(new MenuSnapshotChangedEvent(previous, next));
+    }
+
+    private String computeVersion(List<MenuItemView> items) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(items);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Unable to compute menu snapshot version", e);
+        }
+    }
+
+    // Snapshot classes
+
+    public static class MenuSnapshot {
+        private final String version;
+        private final Instant builtAt;
+        private final List<MenuItemView> items;
+        private final Map<Long, MenuItemView> itemsById;
+
+        public MenuSnapshot(String version, Instant builtAt, List<MenuItemView> items) {
+            this.version = version;
+            this.builtAt = builtAt;
+            this.items = List.copyOf(items);
+
+            Map<Long, MenuItemView> byId = new LinkedHashMap<>();
+            for (MenuItemView item : this.items) {
+                byId.put(item.getId(), item);
+            }
+            this.itemsById = Collections.unmodifiableMap(byId);
+        }
+
+        public String getVersion() { return version; }
+        public Instant getBuiltAt() { return builtAt; }
+        public List<MenuItemView> getItems() { return items; }
+
+        public MenuItemView getItem(Long id) {
+            return itemsById.get(id);
+        }
+
+        /**
+         * Strong ETag for responses rendered from this snapshot
+         */
+        public String getETag() {
+            return "\"" + version + "\"";
+        }
+
+        boolean hasSameStockAs(MenuSnapshot other) {
+            if (items.size() != other.items.size()) {
+                return false;
+            }
+            for (int i = 0; i < items.size(); i++) {
+                MenuItemView mine = items.get(i);
+                MenuItemView theirs = other.items.get(i);
+                if (!Objects.equals(mine.getCurrentStock(), theirs.getCurrentStock())
+                        || !Objects.equals(mine.getMinimumStock(), theirs.getMinimumStock())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Immutable, detached copy of a MenuItem. Stock counts are kept for internal
+     * consumers but not rendered, so stock-only changes do not bust client caches.
+     */
+    public static class MenuItemView {
+        private final Long id;
+        private final String name;
+        private final String description;
+        private final BigDecimal price;
+        private final MenuItem.MenuCategory category;
+        private final String imageUrl;
+        private final boolean available;
+        private final boolean popular;
+        private final MenuItem.SpicyLevel spicyLevel;
+        private final List<String> allergens;
+        private final Integer preparationTimeMinutes;
+        private final List<String> tags;
+        private final Integer calories;
+        private final Integer proteinGrams;
+        private final Integer carbsGrams;
+        private final Integer fatGrams;
+        private final Integer currentStock;
+        private final Integer minimumStock;
+        private final boolean inStock;
+
+        public MenuItemView(MenuItem menuItem) {
+            this.id = menuItem.getId();
+            this.name = menuItem.getName();
+            this.description = menuItem.getDescription();
+            this.price = menuItem.getPrice();
+            this.category = menuItem.getCategory();
+            this.imageUrl = menuItem.getImageUrl();
+            this.available = Boolean.TRUE.equals(menuItem.getAvailable());
+            this.popular = Boolean.TRUE.equals(menuItem.getPopular());
+            this.spicyLevel = menuItem.getSpicyLevel();
+            this.allergens = copyOf(menuItem.getAllergens());
+            this.preparationTimeMinutes = menuItem.getPreparationTimeMinutes();
+            this.tags = copyOf(menuItem.getTags());
+            this.calories = menuItem.getCalories();
+            this.proteinGrams = menuItem.getProteinGrams();
+            this.carbsGrams = menuItem.getCarbsGrams();
+            this.fatGrams = menuItem.getFatGrams();
+            this.currentStock = menuItem.getCurrentStock();
+            this.minimumStock = menuItem.getMinimumStock();
+            this.inStock = available && (currentStock == null || currentStock > 0);
+        }
+
+        private static List<String> copyOf(List<String> values) {
+            if (values == null || values.isEmpty()) {
+                return List.of();
+            }
+            List<String> copy = new ArrayList<>(values.size());
+            for (String value : values) {
+                if (value != null) {
+                    copy.add(value);
+                }
+            }
+            return List.copyOf(copy);
+        }
+
+        // Getters
+        public Long getId() { return id; }
+        public String getName() { return name; }
+        public String getDescription() { return description; }
+        public BigDecimal getPrice() { return price; }
+        public MenuItem.MenuCategory getCategory() { return category; }
+        public String getImageUrl() { return imageUrl; }
+        public boolean isAvailable() { return available; }
+        public boolean isPopular() { return popular; }
+        public MenuItem.SpicyLevel getSpicyLevel() { return spicyLevel; }
+        public List<String> getAllergens() { return allergens; }
+        public Integer getPreparationTimeMinutes() { return preparationTimeMinutes; }
+        public List<String> getTags() { return tags; }
+        public Integer getCalories() { return calories; }
+        public Integer getProteinGrams() { return proteinGrams; }
+        public Integer getCarbsGrams() { return carbsGrams; }
+        public Integer getFatGrams() { return fatGrams; }
+        public boolean isInStock() { return inStock; }
+
+        @JsonIgnore
+        public Integer getCurrentStock() { return currentStock; }
+
+        @JsonIgnore
+        public Integer getMinimumStock() { return minimumStock; }
+    }
+
+    /**
+     * Published after a new snapshot has been swapped in
+     */
+    public static class MenuSnapshotChangedEvent {
+        private final MenuSnapshot previous;
+        private final MenuSnapshot current;
+
+        public MenuSnapshotChangedEvent(MenuSnapshot previous, MenuSnapshot current) {
+            this.previous = previous;
+            this.current = current;
+        }
+
+        public MenuSnapshot getPrevious() { return previous; }
+        public MenuSnapshot getCurrent() { return current; }
+    }
+}
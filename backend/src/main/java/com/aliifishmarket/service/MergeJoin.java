@@ -0,0 +1,99 @@
+package com.aliifishmarket.service;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.function.Function;
+
+/**
+ * Sort-merge join of two streams sorted by the same key, in constant memory.
+ *
+ * Both inputs are consumed exactly once. Each key is reported as matched, left
+ * only or right only; further rows with an already-seen key on the same side are
+ * reported as duplicates. Input that is not sorted by the comparator would give
+ * silently wrong results, so it fails fast instead.
+ */
+public final class MergeJoin {
+
+    public interface Handler<K, L, R> {
+        void matched(K key, L left, R right);
+        void leftOnly(K key, L left);
+        void rightOnly(K key, R right);
+        void duplicateLeft(K key, L left);
+        void duplicateRight(K key, R right);
+    }
+
+    private MergeJoin() {
+    }
+
+    public static <K, L, R> void join(Iterator<L> left, Function<L, K> leftKey,
+                                      Iterator<R> right, Function<R, K> rightKey,
+                                      Comparator<K> order, Handler<K, L, R> handler) {
+        Cursor<K, L> l = new Cursor<>(left, leftKey, order, "left");
+        Cursor<K, R> r = new Cursor<>(right, rightKey, order, "right");
+
+        while (l.row != null || r.row != null) {
+            int cmp = l.row == null ? 1 : r.row == null ? -1 : order.compare(l.key, r.key);
+            K key;
+            if (cmp == 0) {
+                key = l.key;
+                handler.matched(key, l.row, r.row);
+                l.advance();
+                r.advance();
+            } else if (cmp < 0) {
+                key = l.key;
+                handler.leftOnly(key, l.row);
+                l.advance();
+            } else {
+                key = r.key;
+                handler.rightOnly(key, r.row);
+                r.advance();
+            }
+
+            while (l.row != null && order.compare(l.key, key) == 0) {
+                handler.duplicateLeft(key, l.row);
+                l.advance();
+            }
+            while (r.row != null && order.compare(r.key, key) == 0) {
+                handler.duplicateRight(key, r.row);
+                r.advance();
+            }
+        }
+    }
+
+    private static final class Cursor<K, T> {
+        private final Iterator<T> source;
+        private final Function<T, K> keyOf;
+        private final Comparator<K> order;
+        private final String side;
+        T row;
+        K key;
+
+        Cursor(Iterator<T> source, Function<T, K> keyOf, Comparator<K> order, String side) {
+            this.source = source;
+            this.keyOf = keyOf;
+            this.order = order;
+            this.side = side;
+            advance();
+        }
+
+        void advance() {
+            K previous = key;
+            while (source.hasNext()) {
+                T next = source.next();
+                K nextKey = keyOf.apply(next);
+                if (nextKey == null) {
+                    continue;
+                }
+                if (previous != null && order.compare(nextKey, previous) < 0) {
+                    throw new IllegalStateException("Merge join " + side + " input is not sorted: "
+                        + nextKey + " after " + previous);
+                }
+                row = next;
+                key = nextKey;
+                return;
+            }
+            row = null;
+            key = null;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.aliifishmarket.service;
+
+import com.aliifishmarket.service.UppIntegrationService.UppPaymentStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * End-of-day cross-check of UPP payments against local records.
+ *
+ * UPP's payment listing for the day and the local side (orders by
+ * upp_payment_id, plus non-cash POS transactions, which record the UPP payment id
+ * as their transaction_id) are both streamed sorted by payment id and merge
+ * joined, so memory use does not depend on the day's volume. Reported:
+ * payments missing on either side, duplicate ids, amount mismatches, and orders
+ * whose status or UPP transaction id disagrees with UPP.
+ */
+@Service
+public class PaymentReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentReconciliationService.class);
+
+    public enum DiscrepancyType {
+        MISSING_LOCAL, MISSING_IN_UPP, DUPLICATE_LOCAL, DUPLICATE_UPP,
+        AMOUNT_MISMATCH, STATUS_MISMATCH, TRANSACTION_ID_MISMATCH
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UppIntegrationService uppIntegrationService;
+
+    @Autowired
+    private PaymentStatusRegistry paymentStatusRegistry;
+
+    @Autowired
+    private ArchivalService archivalService;
+
+    @Value("${app.reconciliation.enabled:false}")
+    private boolean reconciliationEnabled;
+
+    @Value("${app.reconciliation.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${app.reconciliation.upp-prefetch:256}")
+    private int uppPrefetch;
+
+    @Value("${app.reconciliation.max-discrepancies:500}")
+    private int maxDiscrepancies;
+
+    // Must give the same order as String.compareTo; "C" does for PostgreSQL
+    @Value("${app.reconciliation.collate-clause:COLLATE \"C\"}")
+    private String collateClause;
+
+    @Value("${app.business.timezone:Pacific/Honolulu}")
+    private String businessTimezone;
+
+    private JdbcTemplate streamingJdbcTemplate;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    public void init() {
+        streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        streamingJdbcTemplate.setFetchSize(fetchSize);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Reconcile yesterday's payments
+     */
+    @Scheduled(cron = "${app.reconciliation.cron:0 15 3 * * *}", zone = "${app.business.timezone:Pacific/Honolulu}")
+    public void reconcileYesterday() {
+        if (!reconciliationEnabled) {
+            return;
+        }
+        try {
+            ReconciliationReport report = reconcile(LocalDate.now(ZoneId.of(businessTimezone)).minusDays(1));
+            if (report.getDiscrepancyCount() > 0) {
+                logger.warn("Payment reconciliation for {} found {} discrepancies", report.getDate(),
+                    report.getDiscrepancyCount());
+            }
+        } catch (Exception e) {
+            logger.error("Payment reconciliation failed: {}", e.getMessage(), e);
+        }
+    }
+
+    public ReconciliationReport reconcile(LocalDate date) {
+        long started = System.currentTimeMillis();
+        ReconciliationReport report = new ReconciliationReport(date, maxDiscrepancies);
+
+        // A cursor-backed result set (PostgreSQL) needs an open transaction
+        readOnlyTransaction.executeWithoutResult(status -> {
+            // Closing the UPP stream cancels the subscription, so a failed merge releases the connection
+            try (Stream<LocalPayment> local = streamLocal(date);
+                 Stream<UppPaymentStatus> upp = uppIntegrationService.streamPayments(date).toStream(uppPrefetch)) {
+                MergeJoin.join(local.iterator(), LocalPayment::getPaymentId,
+                    upp.iterator(), UppPaymentStatus::getPaymentId,
+                    Comparator.naturalOrder(), new ReportingHandler(report));
+            }
+        });
+
+        report.setDurationMs(System.currentTimeMillis() - started);
+        logger.info("Reconciled payments for {}: {} matched, {} discrepancies in {} ms",
+            date, report.getMatched(), report.getDiscrepancyCount(), report.getDurationMs());
+        return report;
+    }
+
+    private Stream<LocalPayment> streamLocal(LocalDate date) {
+        Timestamp from = Timestamp.valueOf(date.atStartOfDay());
+        Timestamp to = Timestamp.valueOf(date.plusDays(1).atStartOfDay());
+        boolean withArchive = archivalService.isArchiveEnabled();
+
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder();
+        appendOrders(sql, params, "orders", from, to);
+        if (withArchive) {
+            appendOrders(sql, params, "orders_archive", from, to);
+        }
+        appendTransactions(sql, params, "transactions", date);
+        if (withArchive) {
+            appendTransactions(sql, params, "transactions_archive", date);
+        }
+        sql.append(" ORDER BY payment_id ").append(collateClause);
+
+        return streamingJdbcTemplate.queryForStream(sql.toString(), (rs, rowNum) -> new LocalPayment(
+            rs.getString("source"), rs.getString("payment_id"), rs.getString("reference"),
+            rs.getBigDecimal("amount"), rs.getString("status"), rs.getString("upp_transaction_id")),
+            params.toArray());
+    }
+
+    private static void appendOrders(StringBuilder sql, List<Object> params, String table, Timestamp from, Timestamp to) {
+        if (sql.length() > 0) {
+            sql.append(" UNION ALL ");
+        }
+        sql.append("SELECT 'ORDER' AS source, upp_payment_id AS payment_id, order_number AS reference, ")
+            .append("total_amount AS amount, payment_status AS status, payment_transaction_id AS upp_transaction_id ")
+            .append("FROM ").append(table)
+            .append(" WHERE upp_payment_id IS NOT NULL AND created_at >= ? AND created_at < ?");
+        params.add(from);
+        params.add(to);
+    }
+
+    private static void appendTransactions(StringBuilder sql, List<Object> params, String table, LocalDate date) {
+        sql.append(" UNION ALL ")
+            .append("SELECT 'TRANSACTION' AS source, transaction_id AS payment_id, receipt_number AS reference, ")
+            .append("total_amount AS amount, status, CAST(NULL AS VARCHAR(255)) AS upp_transaction_id ")
+            .append("FROM ").append(table)
+            .append(" WHERE payment_method <> 'CASH' AND transaction_date = ?");
+        params.add(date);
+    }
+
+    private final class ReportingHandler implements MergeJoin.Handler<String, LocalPayment, UppPaymentStatus> {
+        private final ReconciliationReport report;
+
+        ReportingHandler(ReconciliationReport report) {
+            this.report = report;
+        }
+
+        @Override
+        public void matched(String key, LocalPayment local, UppPaymentStatus upp) {
+            report.matched++;
+            if (local.amount != null && upp.getAmount() != null && local.amount.compareTo(upp.getAmount()) != 0) {
+                report.add(DiscrepancyType.AMOUNT_MISMATCH, key, local, upp);
+            }
+            if (!"ORDER".equals(local.source)) {
+                return;
+            }
+            if (local.uppTransactionId != null && upp.getTransactionId() != null
+                    && !local.uppTransactionId.equals(upp.getTransactionId())) {
+                report.add(DiscrepancyType.TRANSACTION_ID_MISMATCH, key, local, upp);
+            }
+            // A paid order must be backed by a settled UPP payment and vice versa
+            boolean uppSettled = paymentStatusRegistry.isTerminal(upp.getStatus())
+                && upp.getError() == null && !"FAILED".equalsIgnoreCase(upp.getStatus());
+            boolean localPaid = "COMPLETED".equals(local.status);
+            if (paymentStatusRegistry.isTerminal(upp.getStatus()) && uppSettled != localPaid) {
+                report.add(DiscrepancyType.STATUS_MISMATCH, key, local, upp);
+            }
+        }
+
+        @Override
+        public void leftOnly(String key, LocalPayment local) {
+            report.add(DiscrepancyType.MISSING_IN_UPP, key, local, null);
+        }
+
+        @Override
+        public void rightOnly(String key, UppPaymentStatus upp) {
+            report.add(DiscrepancyType.MISSING_LOCAL, key, null, upp);
+        }
+
+        @Override
+        public void duplicateLeft(String key, LocalPayment local) {
+            report.add(DiscrepancyType.DUPLICATE_LOCAL, key, local, null);
+        }
+
+        @Override
+        public void duplicateRight(String key, UppPaymentStatus upp) {
+            report.add(DiscrepancyType.DUPLICATE_UPP, key, null, upp);
+        }
+    }
+
+    // Report classes
+
+    static final class LocalPayment {
+        private final String source;
+        private final String paymentId;
+        private final String reference;
+        private final BigDecimal amount;
+        private final String status;
+        private final String uppTransactionId;
+
+        LocalPayment(String source, String paymentId, String reference, BigDecimal amount, String status,
+                     String uppTransactionId) {
+            this.source = source;
+            this.paymentId = paymentId;
+            this.reference = reference;
+            this.amount = amount;
+            this.status = status;
+            this.uppTransactionId = uppTransactionId;
+        }
+
+        String getPaymentId() { return paymentId; }
+    }
+
+    public static class Discrepancy {
+        private final DiscrepancyType type;
+        private final String paymentId;
+        private final String localSource;
+        private final String localReference;
+        private final BigDecimal localAmount;
+        private final String localStatus;
+        private final BigDecimal uppAmount;
+        private final String uppStatus;
+
+        Discrepancy(DiscrepancyType type, String paymentId, LocalPayment local, UppPaymentStatus upp) {
+            this.type = type;
+            this.paymentId = paymentId;
+            this.localSource = local != null ? local.source : null;
+            this.localReference = local != null ? local.reference : null;
+            this.localAmount = local != null ? local.amount : null;
+            this.localStatus = local != null ? local.status : null;
+            this.uppAmount = upp != null ? upp.getAmount() : null;
+            this.uppStatus = upp != null ? upp.getStatus() : null;
+        }
+
+        public DiscrepancyType getType() { return type; }
+        public String getPaymentId() { return paymentId; }
+        public String getLocalSource() { return localSource; }
+        public String getLocalReference() { return localReference; }
+        public BigDecimal getLocalAmount() { return localAmount; }
+        public String getLocalStatus() { return localStatus; }
+        public BigDecimal getUppAmount() { return uppAmount; }
+        public String getUppStatus() { return uppStatus; }
+    }
+
+    public static class ReconciliationReport {
+        private final LocalDate date;
+        private final int maxDiscrepancies;
+        private final long[] countsByType = new long[DiscrepancyType.values().length];
+        private final List<Discrepancy> discrepancies = new ArrayList<>();
+        private long matched;
+        private long durationMs;
+
+        ReconciliationReport(LocalDate date, int maxDiscrepancies) {
+            this.date = date;
+            this.maxDiscrepancies = maxDiscrepancies;
+        }
+
+        void add(DiscrepancyType type, String paymentId, LocalPayment local, UppPaymentStatus upp) {
+            countsByType[type.ordinal()]++;
+            if (discrepancies.size() < maxDiscrepancies) {
+                discrepancies.add(new Discrepancy(type, paymentId, local, upp));
+            }
+        }
+
+        void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+
+        public LocalDate getDate() { return date; }
+        public long getMatched() { return matched; }
+        public long getDurationMs() { return durationMs; }
+        public List<Discrepancy> getDiscrepancies() { return discrepancies; }
+
+        public long getDiscrepancyCount() {
+            long total = 0;
+            for (long count : countsByType) {
+                total += count;
+            }
+            return total;
+        }
+
+        public boolean isTruncated() {
+            return getDiscrepancyCount() > discrepancies.size();
+        }
+
+        public Map<DiscrepancyType, Long> getCounts() {
+            Map<DiscrepancyType, Long> counts = new EnumMap<>(DiscrepancyType.class);
+            for (DiscrepancyType type : DiscrepancyType.values()) {
+                counts.put(type, countsByType[type.ordinal()]);
+            }
+            return counts;
+        }
+    }
+}
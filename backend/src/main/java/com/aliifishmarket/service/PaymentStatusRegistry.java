@@ -0,0 +1,133 @@
+package com.aliifishmarket.service;
+
+import com.aliifishmarket.service.UppIntegrationService.UppPaymentStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import jakarta.annotation.PostConstruct;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Local view of UPP payment status, so screens waiting on a payment do not each
+ * poll UPP.
+ *
+ * Concurrent lookups for the same paymentId share one in-flight UPP call. A
+ * polled status is reused for a short freshness window, terminal statuses are
+ * kept until they expire, and webhook deliveries update entries directly so
+ * most checks never leave the process.
+ */
+@Service
+public class PaymentStatusRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentStatusRegistry.class);
+
+    @Autowired
+    private UppIntegrationService uppIntegrationService;
+
+    @Value("${app.upp.status.freshness-ms:1000}")
+    private long freshnessMs;
+
+    @Value("${app.upp.status.terminal-retention-ms:3600000}")
+    private long terminalRetentionMs;
+
+    @Value("${app.upp.status.terminal-states:COMPLETED,SUCCEEDED,SUCCESS,FAILED,DECLINED,CANCELLED,REFUNDED,EXPIRED}")
+    private String[] configuredTerminalStates;
+
+    private final Set<String> terminalStates = new HashSet<>();
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Map<String, Mono<UppPaymentStatus>> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        for (String state : configuredTerminalStates) {
+            terminalStates.add(state.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Current status, served locally when terminal or fresh, otherwise from one
+     * UPP call shared by every concurrent caller for this payment
+     */
+    public Mono<UppPaymentStatus> getStatus(String paymentId) {
+        Entry entry = entries.get(paymentId);
+        if (entry != null && (entry.terminal || entry.age() < freshnessMs)) {
+            return Mono.just(entry.status);
+        }
+
+        return inFlight.computeIfAbsent(paymentId, this::poll);
+    }
+
+    /**
+     * Apply a status pushed by a UPP webhook. Terminal states are never
+     * overwritten by late non-terminal deliveries.
+     */
+    public void applyWebhookUpdate(UppPaymentStatus status) {
+        if (status == null || status.getPaymentId() == null) {
+            return;
+        }
+        record(status.getPaymentId(), status);
+        logger.debug("Payment {} status {} from webhook", status.getPaymentId(), status.getStatus());
+    }
+
+    public boolean isTerminal(String status) {
+        return status != null && terminalStates.contains(status.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Drop expired entries
+     */
+    @Scheduled(fixedDelayString = "${app.upp.status.cleanup-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.entrySet().removeIf(e -> e.getValue().terminal
+            ? now - e.getValue().updatedAt > terminalRetentionMs
+            : now - e.getValue().updatedAt > Math.max(freshnessMs, 60_000));
+    }
+
+    private Mono<UppPaymentStatus> poll(String paymentId) {
+        AtomicReference<Mono<UppPaymentStatus>> self = new AtomicReference<>();
+        Mono<UppPaymentStatus> call = uppIntegrationService.getPaymentStatus(paymentId)
+            .map(status -> record(paymentId, status))
+            .doFinally(signal -> inFlight.remove(paymentId, self.get()))
+            .cache();
+        self.set(call);
+        return call;
+    }
+
+    private UppPaymentStatus record(String paymentId, UppPaymentStatus status) {
+        Entry updated = entries.compute(paymentId, (id, existing) -> {
+            if (existing != null && existing.terminal && !isTerminal(status.getStatus())) {
+                return existing;
+            }
+            return new Entry(status, isTerminal(status.getStatus()));
+        });
+        return updated.status;
+    }
+
+    private static final class Entry {
+        final UppPaymentStatus status;
+        final boolean terminal;
+        final long updatedAt = System.currentTimeMillis();
+
+        Entry(UppPaymentStatus status, boolean terminal) {
+            this.status = status;
+            this.terminal = terminal;
+        }
+
+        long age() {
+            return System.currentTimeMillis() - updatedAt;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.aliifishmarket.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.BaseStream;
+
+/**
+ * In-memory statistics of the SQL issued by each repository method.
+ *
+ * QueryStatisticsConfig opens a scope around every repository call and registers
+ * a Hibernate StatementInspector that counts the statements prepared inside it,
+ * so each statement is attributed to the repository method that caused it
+ * without parsing SQL or walking the stack. Statements outside any repository
+ * call are grouped as "(lazy load)" for selects, typically N+1 fetches, and
+ * "(flush)" for writes issued when the transaction flushes.
+ *
+ * Per method: calls, statements, total and max time, and call-time and row-count
+ * histograms with fixed buckets. Calls slower than slow-query-ms are logged at
+ * WARN with their first statement.
+ */
+@Service
+public class QueryStatistics {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryStatistics.class);
+
+    private static final long[] TIME_BOUNDS_MS = { 1, 5, 10, 50, 100, 500, 1000 };
+    private static final long[] ROW_BOUNDS = { 0, 1, 10, 100, 1000 };
+    private static final int MAX_SQL_CHARS = 500;
+
+    @Value("${app.query-statistics.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.query-statistics.slow-query-ms:500}")
+    private long slowQueryMs;
+
+    private final Map<String, MethodStatistics> byMethod = new ConcurrentHashMap<>();
+    private final ThreadLocal<Scope> current = new ThreadLocal<>();
+
+    /**
+     * Start attributing statements to a repository method. Returns null when
+     * disabled or already inside a repository call, which keeps the attribution.
+     */
+    public Scope begin(String method) {
+        if (!enabled || current.get() != null) {
+            return null;
+        }
+        Scope scope = new Scope(method, System.nanoTime());
+        current.set(scope);
+        return scope;
+    }
+
+    public void end(Scope scope, Object result) {
+        current.remove();
+        long nanos = System.nanoTime() - scope.start;
+        MethodStatistics statistics = statistics(scope.method);
+        statistics.record(nanos, scope.statements, rows(result));
+        if (scope.firstSql != null) {
+            statistics.sampleSql = scope.firstSql;
+        }
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        if (millis >= slowQueryMs) {
+            logger.warn("Slow repository call {} took {} ms, {} statements: {}",
+                scope.method, millis, scope.statements, scope.firstSql);
+        }
+    }
+
+    /**
+     * Called by the StatementInspector for every statement Hibernate prepares
+     */
+    public void onStatement(String sql) {
+        if (!enabled) {
+            return;
+        }
+        Scope scope = current.get();
+        if (scope != null) {
+            scope.statements++;
+            if (scope.firstSql == null) {
+                scope.firstSql = truncate(sql);
+            }
+            return;
+        }
+        String key = isQuery(sql) ? "(lazy load)" : "(flush)";
+        MethodStatistics statistics = statistics(key);
+        statistics.statements.increment();
+        statistics.sampleSql = truncate(sql);
+    }
+
+    /**
+     * Repository methods with the highest mean call time
+     */
+    public List<MethodSummary> getSlowest(int limit) {
+        return top(Comparator.comparingDouble(MethodSummary::getMeanMs), limit);
+    }
+
+    /**
+     * Repository methods issuing the most statements per call
+     */
+    public List<MethodSummary> getChattiest(int limit) {
+        return top(Comparator.comparingDouble(MethodSummary::getStatementsPerCall)
+            .thenComparingLong(MethodSummary::getStatements), limit);
+    }
+
+    /**
+     * Statements issued outside repository calls
+     */
+    public Map<String, MethodSummary> getUnattributed() {
+        Map<String, MethodSummary> unattributed = new LinkedHashMap<>();
+        byMethod.forEach((method, statistics) -> {
+            if (statistics.calls.sum() == 0) {
+                unattributed.put(method, statistics.summary(method));
+            }
+        });
+        return unattributed;
+    }
+
+    public void reset() {
+        byMethod.clear();
+    }
+
+    private List<MethodSummary> top(Comparator<MethodSummary> order, int limit) {
+        List<MethodSummary> summaries = new ArrayList<>();
+        byMethod.forEach((method, statistics) -> {
+            if (statistics.calls.sum() > 0) {
+                summaries.add(statistics.summary(method));
+            }
+        });
+        summaries.sort(order.reversed());
+        return summaries.subList(0, Math.min(limit, summaries.size()));
+    }
+
+    private MethodStatistics statistics(String method) {
+        MethodStatistics statistics = byMethod.get(method);
+        return statistics != null ? statistics : byMethod.computeIfAbsent(method, m -> new MethodStatistics());
+    }
+
+    /**
+     * Rows a repository method returned, or -1 when it can't be told without consuming the result
+     */
+    private static long rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof BaseStream<?, ?>) {
+            return -1;
+        }
+        return 1;
+    }
+
+    private static boolean isQuery(String sql) {
+        int start = 0;
+        // Skip the comment use_sql_comments puts in front
+        if (sql.startsWith("/*")) {
+            int end = sql.indexOf("*/");
+            start = end < 0 ? 0 : end + 2;
+        }
+        while (start < sql.length() && Character.isWhitespace(sql.charAt(start))) {
+            start++;
+        }
+        return sql.regionMatches(true, start, "select", 0, 6) || sql.regionMatches(true, start, "with", 0, 4);
+    }
+
+    private static String truncate(String sql) {
+        return sql.length() <= MAX_SQL_CHARS ? sql : sql.substring(0, MAX_SQL_CHARS) + "...";
+    }
+
+    private static int bucket(long[] bounds, long value) {
+        int i = 0;
+        while (i < bounds.length && value > bounds[i]) {
+            i++;
+        }
+        return i;
+    }
+
+    private static Map<String, Long> histogram(long[] bounds, LongAdder[] counts, String unit) {
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            String label = i < bounds.length ? "<=" + bounds[i] + unit : ">" + bounds[bounds.length - 1] + unit;
+            histogram.put(label, counts[i].sum());
+        }
+        return histogram;
+    }
+
+    /**
+     * One repository call in progress on this thread
+     */
+    public static final class Scope {
+        private final String method;
+        private final long start;
+        private int statements;
+        private String firstSql;
+
+        Scope(String method, long start) {
+            this.method = method;
+            this.start = start;
+        }
+    }
+
+    private static final class MethodStatistics {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder[] timeBuckets = adders(TIME_BOUNDS_MS.length + 1);
+        private final LongAdder[] rowBuckets = adders(ROW_BOUNDS.length + 1);
+        private volatile String sampleSql;
+
+        void record(long nanos, int statementCount, long rows) {
+            calls.increment();
+            statements.add(statementCount);
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            timeBuckets[bucket(TIME_BOUNDS_MS, TimeUnit.NANOSECONDS.toMillis(nanos))].increment();
+            if (rows >= 0) {
+                rowBuckets[bucket(ROW_BOUNDS, rows)].increment();
+            }
+        }
+
+        MethodSummary summary(String method) {
+            return new MethodSummary(method, calls.sum(), statements.sum(), totalNanos.sum(), maxNanos.get(),
+                histogram(TIME_BOUNDS_MS, timeBuckets, "ms"), histogram(ROW_BOUNDS, rowBuckets, ""), sampleSql);
+        }
+
+        private static LongAdder[] adders(int count) {
+            LongAdder[] adders = new LongAdder[count];
+            for (int i = 0; i < count; i++) {
+                adders[i] = new LongAdder();
+            }
+            return adders;
+        }
+    }
+
+    public static class MethodSummary {
+        private final String method;
+        private final long calls;
+        private final long statements;
+        private final double totalMs;
+        private final double maxMs;
+        private final Map<String, Long> timeHistogram;
+        private final Map<String, Long> rowHistogram;
+        private final String sampleSql;
+
+        MethodSummary(String method, long calls, long statements, long totalNanos, long maxNanos,
+                      Map<String, Long> timeHistogram, Map<String, Long> rowHistogram, String sampleSql) {
+            this.method = method;
+            this.calls = calls;
+            this.statements = statements;
+            this.totalMs = totalNanos / 1_000_000.0;
+            this.maxMs = maxNanos / 1_000_000.0;
+            this.timeHistogram = timeHistogram;
+            this.rowHistogram = rowHistogram;
+            this.sampleSql = sampleSql;
+        }
+
+        public String getMethod() { return method; }
+        public long getCalls() { return calls; }
+        public long getStatements() { return statements; }
+        public double getStatementsPerCall() { return calls == 0 ? 0 : (double) statements / calls; }
+        public double getTotalMs() { return totalMs; }
+        public double getMeanMs() { return calls == 0 ? 0 : totalMs / calls; }
+        public double getMaxMs() { return maxMs; }
+        public Map<String, Long> getTimeHistogram() { return timeHistogram; }
+        public Map<String, Long> getRowHistogram() { return rowHistogram; }
+        public String getSampleSql() { return sampleSql; }
+    }
+}
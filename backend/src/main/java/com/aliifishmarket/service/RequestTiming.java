@@ -0,0 +1,187 @@
+package com.aliifishmarket.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-request breakdown of where the time went: JDBC statements, waiting for a
+ * pooled connection, UPP calls, and JSON decoding and encoding.
+ *
+ * RequestTimingConfig opens a Timings for each HTTP request and binds it to the
+ * request thread; the DataSource wrapper, the Jackson message converter,
+ * ResponseBodyCache and UppIntegrationService record into it. UPP calls finish
+ * on reactor threads, so they capture the Timings when the call is made. The
+ * breakdown is sent as a Server-Timing header when the response starts, and
+ * requests slower than slow-request-ms are logged at WARN with key=value
+ * fields. Recording is a ThreadLocal read and an atomic add; outside HTTP
+ * requests nothing is recorded.
+ */
+@Service
+public class RequestTiming {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestTiming.class);
+
+    public enum Phase {
+        DB("db", "db_ms", "db_statements"),
+        DB_POOL("db-pool", "db_pool_ms", "db_connections"),
+        UPP("upp", "upp_ms", "upp_calls"),
+        JSON("json", "json_ms", null);
+
+        private final String metric;
+        private final String logKey;
+        private final String countLogKey;
+
+        Phase(String metric, String logKey, String countLogKey) {
+            this.metric = metric;
+            this.logKey = logKey;
+            this.countLogKey = countLogKey;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+
+    @Value("${app.request-timing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.request-timing.header:true}")
+    private boolean headerEnabled;
+
+    @Value("${app.request-timing.slow-request-ms:1000}")
+    private long slowRequestMs;
+
+    private final ThreadLocal<Timings> current = new ThreadLocal<>();
+
+    /**
+     * New timings for a request starting now, or null when disabled
+     */
+    public Timings start() {
+        return enabled ? new Timings(System.nanoTime()) : null;
+    }
+
+    public void attach(Timings timings) {
+        current.set(timings);
+    }
+
+    public void detach() {
+        current.remove();
+    }
+
+    public Timings current() {
+        return current.get();
+    }
+
+    /**
+     * Add the time since startNanos to the current request, if there is one
+     */
+    public void record(Phase phase, long startNanos) {
+        Timings timings = current.get();
+        if (timings != null) {
+            timings.add(phase, System.nanoTime() - startNanos);
+        }
+    }
+
+    public boolean isHeaderEnabled() {
+        return headerEnabled;
+    }
+
+    /**
+     * Server-Timing header value for the time recorded so far, e.g.
+     * db;dur=12.4;desc="3 statements", upp;dur=81.0;desc="1 call", app;dur=97.2
+     */
+    public String serverTiming(Timings timings) {
+        StringBuilder header = new StringBuilder(96);
+        for (Phase phase : PHASES) {
+            long count = timings.count(phase);
+            if (count == 0) {
+                continue;
+            }
+            header.append(phase.metric).append(";dur=");
+            appendMillis(header, timings.nanos(phase));
+            if (phase == Phase.DB) {
+                header.append(";desc=\"").append(count).append(count == 1 ? " statement\"" : " statements\"");
+            } else if (phase == Phase.UPP) {
+                header.append(";desc=\"").append(count).append(count == 1 ? " call\"" : " calls\"");
+            }
+            header.append(", ");
+        }
+        header.append("app;dur=");
+        appendMillis(header, System.nanoTime() - timings.start);
+        return header.toString();
+    }
+
+    /**
+     * End of the request: log the full breakdown if it was slow
+     */
+    public void complete(Timings timings, String method, String uri, int status) {
+        long totalNanos = System.nanoTime() - timings.start;
+        if (TimeUnit.NANOSECONDS.toMillis(totalNanos) < slowRequestMs) {
+            return;
+        }
+
+        StringBuilder line = new StringBuilder(256);
+        line.append("Slow request method=").append(method)
+            .append(" uri=").append(uri)
+            .append(" status=").append(status)
+            .append(" total_ms=");
+        appendMillis(line, totalNanos);
+        long accounted = 0;
+        for (Phase phase : PHASES) {
+            long nanos = timings.nanos(phase);
+            accounted += nanos;
+            line.append(' ').append(phase.logKey).append('=');
+            appendMillis(line, nanos);
+            if (phase.countLogKey != null) {
+                line.append(' ').append(phase.countLogKey).append('=').append(timings.count(phase));
+            }
+        }
+        // Concurrent UPP calls (hedges) can add up to more than the wall time
+        line.append(" other_ms=");
+        appendMillis(line, Math.max(0, totalNanos - accounted));
+        logger.warn(line.toString());
+    }
+
+    private static void appendMillis(StringBuilder target, long nanos) {
+        long tenths = nanos / 100_000;
+        target.append(tenths / 10).append('.').append(tenths % 10);
+    }
+
+    /**
+     * Time and count per phase for one request. Written from the request thread
+     * and, for UPP calls, from reactor threads.
+     */
+    public static final class Timings {
+        private final long start;
+        private final AtomicLongArray values = new AtomicLongArray(PHASES.length * 2);
+        private final AtomicBoolean headerWritten = new AtomicBoolean();
+
+        Timings(long start) {
+            this.start = start;
+        }
+
+        public void add(Phase phase, long nanos) {
+            values.addAndGet(phase.ordinal() * 2, nanos);
+            values.incrementAndGet(phase.ordinal() * 2 + 1);
+        }
+
+        public long nanos(Phase phase) {
+            return values.get(phase.ordinal() * 2);
+        }
+
+        public long count(Phase phase) {
+            return values.get(phase.ordinal() * 2 + 1);
+        }
+
+        /**
+         * True the first time only, so the header is added once per request
+         */
+        public boolean markHeaderWritten() {
+            return headerWritten.compareAndSet(false, true);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.aliifishmarket.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-serialised, pre-compressed response bodies for immutable or versioned
+ * resources (menu snapshot, reports for closed business days).
+ *
+ * A body is rendered to JSON and gzipped once per (key, version) at maximum
+ * compression; later requests get the stored bytes as-is. Responses carry their
+ * own Content-Encoding, so server.compression leaves them alone.
+ *
+ * The two encodings are different representations, so each has its own strong
+ * ETag ("version" and "version-gz"). Controllers return the response as built;
+ * Spring answers a matching If-None-Match with a 304 that keeps the headers.
+ */
+@Service
+public class ResponseBodyCache {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RequestTiming requestTiming;
+
+    @Value("${app.response-cache.max-entries:256}")
+    private int maxEntries;
+
+    @Value("${app.response-cache.min-gzip-bytes:512}")
+    private int minGzipBytes;
+
+    private final Map<String, CachedBody> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    /**
+     * Cached body for key at version, rendering it with the supplier on a miss
+     */
+    public CachedBody get(String key, String version, Supplier<?> body) {
+        synchronized (entries) {
+            CachedBody cached = entries.get(key);
+            if (cached != null && cached.version.equals(version)) {
+                return cached;
+            }
+        }
+
+        // Render outside the lock; a concurrent miss just renders the same bytes twice
+        CachedBody rendered = render(version, body.get());
+        synchronized (entries) {
+            entries.put(key, rendered);
+            while (entries.size() > maxEntries) {
+                entries.remove(entries.keySet().iterator().next());
+            }
+        }
+        return rendered;
+    }
+
+    public void evict(String key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Response writing the stored bytes in the best encoding the client accepts,
+     * tagged with that encoding's ETag
+     */
+    public ResponseEntity<byte[]> toResponse(CachedBody body, String acceptEncoding, CacheControl cacheControl) {
+        boolean gzip = body.gzip != null && acceptsGzip(acceptEncoding);
+        byte[] bytes = gzip ? body.gzip : body.identity;
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .contentLength(bytes.length)
+            .eTag(gzip ? body.getGzipETag() : body.getETag())
+            .cacheControl(cacheControl)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(bytes);
+    }
+
+    private CachedBody render(String version, Object body) {
+        try {
+            long start = System.nanoTime();
+            byte[] identity = objectMapper.writeValueAsBytes(body);
+            requestTiming.record(RequestTiming.Phase.JSON, start);
+            byte[] gzip = identity.length >= minGzipBytes ? gzip(identity) : null;
+            return new CachedBody(version, identity, gzip);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialise cached response body", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim();
+            if (coding.equalsIgnoreCase("gzip") || coding.equals("*")) {
+                for (int i = 1; i < tokens.length; i++) {
+                    String param = tokens[i].trim().replace(" ", "");
+                    if (param.startsWith("q=") && param.substring(2).matches("0(\\.0*)?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static class CachedBody {
+        private final String version;
+        private final byte[] identity;
+        private final byte[] gzip;
+
+        CachedBody(String version, byte[] identity, byte[] gzip) {
+            this.version = version;
+            this.identity = identity;
+            this.gzip = gzip;
+        }
+
+        public String getVersion() { return version; }
+
+        public String getETag() {
+            return "\"" + version + "\"";
+        }
+
+        public String getGzipETag() {
+            return "\"" + version + "-gz\"";
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.aliifishmarket.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Full, filtered stack traces for error reports, encoded once per fingerprint.
+ *
+ * Frames from the servlet container, Spring's dispatch machinery, reflection and
+ * generated proxies are collapsed into a single "... n framework frames" line, so
+ * the budget goes to the frames that explain the failure. The cause chain is
+ * included with common frames elided as "... n more", and the result is cut to
+ * max-chars. Encoded traces are kept in an LRU keyed by fingerprint, so repeats
+ * of a known error (and its aggregates) reuse the string instead of re-encoding;
+ * exception messages in them are masked the same way as in the fingerprint, so a
+ * later occurrence never carries an earlier one's order id or email.
+ *
+ * Errors that only exist as a message have no Throwable; for those the reporting
+ * call site is captured with StackWalker.
+ */
+@Service
+public class StackTraceEncoder {
+
+    private static final String[] FRAMEWORK_PREFIXES = {
+        "org.springframework.", "org.apache.catalina.", "org.apache.coyote.", "org.apache.tomcat.",
+        "jakarta.servlet.", "java.lang.reflect.", "jdk.internal.reflect.", "sun.reflect.",
+        "org.hibernate.", "reactor.core.", "io.micrometer."
+    };
+
+    private static final Set<String> REPORTING_CLASSES = Set.of(
+        StackTraceEncoder.class.getName(), ErrorMonitorService.class.getName());
+
+    @Value("${app.error-monitor.stack-trace.max-chars:4096}")
+    private int maxChars;
+
+    @Value("${app.error-monitor.stack-trace.max-frames:40}")
+    private int maxFrames;
+
+    @Value("${app.error-monitor.stack-trace.cache-size:512}")
+    private int cacheSize;
+
+    private final Map<String, String> encoded = new LinkedHashMap<>(64, 0.75f, true);
+
+    /**
+     * Encoded trace of an exception, from the cache when the fingerprint has been seen
+     */
+    public String encode(Throwable error, ErrorFingerprint fingerprint) {
+        String cached = getCached(fingerprint);
+        return cached != null ? cached : store(fingerprint, encode(error));
+    }
+
+    /**
+     * Encoded trace of the caller, for errors reported without an exception
+     */
+    public String encodeCallSite(ErrorFingerprint fingerprint) {
+        String cached = getCached(fingerprint);
+        if (cached != null) {
+            return cached;
+        }
+        List<StackWalker.StackFrame> frames = StackWalker.getInstance().walk(stream -> stream
+            .dropWhile(frame -> REPORTING_CLASSES.contains(frame.getClassName()))
+            .limit(maxFrames * 2L)
+            .toList());
+
+        StringBuilder out = new StringBuilder("Reported at").append('\n');
+        FrameWriter writer = new FrameWriter(out);
+        for (StackWalker.StackFrame frame : frames) {
+            writer.frame(frame.toStackTraceElement());
+        }
+        writer.finish();
+        return store(fingerprint, truncate(out));
+    }
+
+    public String getCached(ErrorFingerprint fingerprint) {
+        synchronized (encoded) {
+            return encoded.get(fingerprint.getId());
+        }
+    }
+
+    private String store(ErrorFingerprint fingerprint, String trace) {
+        synchronized (encoded) {
+            encoded.put(fingerprint.getId(), trace);
+            while (encoded.size() > cacheSize) {
+                encoded.remove(encoded.keySet().iterator().next());
+            }
+        }
+        return trace;
+    }
+
+    String encode(Throwable error) {
+        StringBuilder out = new StringBuilder(1024);
+        Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        StackTraceElement[] enclosing = null;
+        String prefix = "";
+
+        for (Throwable current = error; current != null && seen.add(current); current = current.getCause()) {
+            StackTraceElement[] trace = current.getStackTrace();
+            out.append(prefix).append(current.getClass().getName());
+            // Cached per fingerprint, so only the masked message may go in, never ids or emails
+            String message = ErrorFingerprint.normalizeMessage(current.getMessage());
+            if (!message.isEmpty()) {
+                out.append(": ").append(message);
+            }
+            out.append('\n');
+
+            // Frames shared with the enclosing trace are only counted
+            int unique = trace.length;
+            if (enclosing != null) {
+                int j = enclosing.length - 1;
+                while (unique > 0 && j >= 0 && trace[unique - 1].equals(enclosing[j])) {
+                    unique--;
+                    j--;
+                }
+            }
+
+            FrameWriter writer = new FrameWriter(out);
+            for (int i = 0; i < unique; i++) {
+                writer.frame(trace[i]);
+            }
+            writer.finish();
+            if (unique < trace.length) {
+                out.append("\t... ").append(trace.length - unique).append(" more\n");
+            }
+
+            if (out.length() >= maxChars) {
+                break;
+            }
+            enclosing = trace;
+            prefix = "Caused by: ";
+        }
+        return truncate(out);
+    }
+
+    private String truncate(StringBuilder out) {
+        if (out.length() <= maxChars) {
+            return out.toString();
+        }
+        String marker = "\n\t... truncated";
+        int end = Math.max(0, maxChars - marker.length());
+        // Cut on a line boundary when there is one
+        int lineEnd = out.lastIndexOf("\n", end);
+        return out.substring(0, lineEnd > 0 ? lineEnd : end) + marker;
+    }
+
+    private static boolean isFramework(StackTraceElement element) {
+        String className = element.getClassName();
+        if (className.contains("$$")) {
+            return true;
+        }
+        for (String prefix : FRAMEWORK_PREFIXES) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes frames of one throwable, collapsing framework runs and capping the count
+     */
+    private final class FrameWriter {
+        private final StringBuilder out;
+        private int written;
+        private int collapsed;
+        private int omitted;
+
+        FrameWriter(StringBuilder out) {
+            this.out = out;
+        }
+
+        void frame(StackTraceElement element) {
+            // The throwing frame is always kept, whoever it belongs to
+            if (written > 0 && isFramework(element)) {
+                collapsed++;
+                return;
+            }
+            flushCollapsed();
+            if (written >= maxFrames) {
+                omitted++;
+                return;
+            }
+            out.append("\tat ").append(element).append('\n');
+            written++;
+        }
+
+        void finish() {
+            flushCollapsed();
+            if (omitted > 0) {
+                out.append("\t... ").append(omitted).append(" frames omitted\n");
+            }
+        }
+
+        private void flushCollapsed() {
+            if (collapsed > 0) {
+                if (written < maxFrames) {
+                    out.append("\t... ").append(collapsed).append(" framework frames\n");
+                } else {
+                    omitted += collapsed;
+                }
+                collapsed = 0;
+            }
+        }
+    }
+}
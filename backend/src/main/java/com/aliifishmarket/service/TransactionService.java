@@ -5,14 +5,22 @@ import com.aliifishmarket.model.TransactionItem;
 import com.aliifishmarket.model.Staff;
 import com.aliifishmarket.repository.TransactionRepository;
 import com.aliifishmarket.repository.StaffRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -25,6 +33,13 @@ public class TransactionService {
     @Autowired
     private StaffRepository staffRepository;
     
+    @Autowired
+    private ArchivalService archivalService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Timed(value = "transactions.create", description = "Time to record a POS transaction", histogram = true)
     public Transaction createTransaction(TransactionCreateRequest request) {
         // Validate staff exists
         Staff staff = staffRepository.findByEmployeeId(request.getStaffEmployeeId())
@@ -58,27 +73,60 @@ public class TransactionService {
             }
         }
         
-        return transactionRepository.save(transaction);
+        Transaction saved = transactionRepository.save(transaction);
+        meterRegistry.counter("transactions.created", "paymentMethod", String.valueOf(request.getPaymentMethod()))
+            .increment();
+        return saved;
     }
     
+    @Transactional(readOnly = true)
+    @Timed(value = "transactions.queries", extraTags = { "query", "by_transaction_id" }, histogram = true)
     public Optional<Transaction> findByTransactionId(String transactionId) {
-        return transactionRepository.findByTransactionId(transactionId);
+        Optional<Transaction> transaction = transactionRepository.findByTransactionId(transactionId);
+        if (transaction.isPresent() || !archivalService.isArchiveEnabled()) {
+            return transaction;
+        }
+        
+        // Fall back to the archive for transactions older than the hot window
+        return transactionRepository.findArchivedByTransactionId(transactionId)
+            .map(archived -> {
+                archived.setItems(transactionRepository.findArchivedItems(archived.getId()));
+                return archived;
+            });
     }
     
+    @Timed(value = "transactions.queries", extraTags = { "query", "todays_transactions" }, histogram = true)
     public List<Transaction> getTodaysTransactions() {
         return transactionRepository.findByTransactionDateOrderByCreatedAtDesc(LocalDate.now());
     }
     
+    @Transactional(readOnly = true)
+    @Timed(value = "transactions.queries", extraTags = { "query", "date_range" }, histogram = true)
     public List<Transaction> getTransactionsByDateRange(LocalDate startDate, LocalDate endDate) {
-        return transactionRepository.findByTransactionDateBetweenOrderByCreatedAtDesc(startDate, endDate);
+        List<Transaction> transactions = transactionRepository.findByTransactionDateBetweenOrderByCreatedAtDesc(startDate, endDate);
+        if (!archivalService.reachesArchive(startDate)) {
+            return transactions;
+        }
+        
+        List<Transaction> archived = transactionRepository.findArchivedByTransactionDateBetween(startDate, endDate);
+        return mergeByCreatedAtDesc(transactions, archived);
     }
     
+    @Transactional(readOnly = true)
+    @Timed(value = "transactions.queries", extraTags = { "query", "staff_transactions" }, histogram = true)
     public List<Transaction> getStaffTransactionsForDate(String employeeId, LocalDate date) {
         Staff staff = staffRepository.findByEmployeeId(employeeId)
             .orElseThrow(() -> new RuntimeException("Staff not found: " + employeeId));
-        return transactionRepository.findByStaffAndTransactionDateOrderByCreatedAtDesc(staff, date);
+        List<Transaction> transactions = transactionRepository.findByStaffAndTransactionDateOrderByCreatedAtDesc(staff, date);
+        if (!archivalService.reachesArchive(date)) {
+            return transactions;
+        }
+        
+        List<Transaction> archived = transactionRepository.findArchivedByStaffAndTransactionDate(staff.getId(), date);
+        return mergeByCreatedAtDesc(transactions, archived);
     }
     
+    @Timed(value = "transactions.queries", extraTags = { "query", "daily_summary" }, histogram = true)
     public DailySummary getDailySummary(LocalDate date) {
         BigDecimal totalSales = transactionRepository.getTotalSalesByDate(date);
         Long transactionCount = transactionRepository.getTransactionCountByDate(date);
@@ -92,7 +140,7 @@ public class TransactionService {
         BigDecimal qrSales = transactionRepository.getTotalSalesByPaymentMethodAndDate(
             Transaction.PaymentMethod.QR, date);
         
-        return new DailySummary(
+        DailySummary summary = new DailySummary(
             date,
             transactionCount != null ? transactionCount : 0,
             totalSales != null ? totalSales : BigDecimal.ZERO,
@@ -101,8 +149,25 @@ public class TransactionService {
             nfcSales != null ? nfcSales : BigDecimal.ZERO,
             qrSales != null ? qrSales : BigDecimal.ZERO
         );
+        
+        if (!archivalService.reachesArchive(date)) {
+            return summary;
+        }
+        
+        // Days past the hot window may be fully or partially archived
+        Object[] archived = firstRow(transactionRepository.getArchivedDailyTotals(date));
+        return new DailySummary(
+            date,
+            summary.getTransactionCount() + toLong(archived[0]),
+            summary.getTotalSales().add(toBigDecimal(archived[1])),
+            summary.getCashSales().add(toBigDecimal(archived[2])),
+            summary.getCardSales().add(toBigDecimal(archived[3])),
+            summary.getNfcSales().add(toBigDecimal(archived[4])),
+            summary.getQrSales().add(toBigDecimal(archived[5]))
+        );
     }
     
+    @Timed(value = "transactions.queries", extraTags = { "query", "staff_performance" }, histogram = true)
     public StaffPerformance getStaffPerformance(String employeeId, LocalDate date) {
         Staff staff = staffRepository.findByEmployeeId(employeeId)
             .orElseThrow(() -> new RuntimeException("Staff not found: " + employeeId));
@@ -110,21 +175,173 @@ public class TransactionService {
         BigDecimal totalSales = transactionRepository.getTotalSalesByStaffAndDate(staff, date);
         Long transactionCount = transactionRepository.getTransactionCountByStaffAndDate(staff, date);
         
+        long count = transactionCount != null ? transactionCount : 0;
+        BigDecimal sales = totalSales != null ? totalSales : BigDecimal.ZERO;
+        
+        if (archivalService.reachesArchive(date)) {
+            Object[] archived = firstRow(transactionRepository.getArchivedStaffTotals(staff.getId(), date));
+            count += toLong(archived[0]);
+            sales = sales.add(toBigDecimal(archived[1]));
+        }
+        
         return new StaffPerformance(
             staff.getEmployeeId(),
             staff.getFullName(),
             date,
-            transactionCount != null ? transactionCount : 0,
-            totalSales != null ? totalSales : BigDecimal.ZERO
+            count,
+            sales
         );
     }
     
+    @Timed(value = "transactions.queries", extraTags = { "query", "daily_sales_summary" }, histogram = true)
     public List<Object> getDailySalesSummary(LocalDate startDate, LocalDate endDate) {
-        return transactionRepository.getDailySalesSummary(startDate, endDate);
+        List<Object> summary = transactionRepository.getDailySalesSummary(startDate, endDate);
+        if (!archivalService.reachesArchive(startDate)) {
+            return summary;
+        }
+        
+        // Merge archived days into the hot rows, keyed by date
+        Map<LocalDate, Map<String, Object>> byDate = new LinkedHashMap<>();
+        for (Object row : summary) {
+            Map<String, Object> values = new LinkedHashMap<>(asMap(row));
+            byDate.put(toLocalDate(values.get("date")), values);
+        }
+        for (Object[] row : transactionRepository.getArchivedDailySalesSummary(startDate, endDate)) {
+            LocalDate date = toLocalDate(row[0]);
+            Map<String, Object> values = byDate.computeIfAbsent(date, d -> {
+                Map<String, Object> empty = new LinkedHashMap<>();
+                empty.put("date", d);
+                return empty;
+            });
+            addLong(values, "transactionCount", row[1]);
+            addAmount(values, "totalSales", row[2]);
+            addAmount(values, "cashSales", row[3]);
+            addAmount(values, "cardSales", row[4]);
+            addAmount(values, "nfcSales", row[5]);
+            addAmount(values, "qrSales", row[6]);
+            addAmount(values, "totalTax", row[7]);
+        }
+        
+        List<Object> merged = new ArrayList<>(byDate.size());
+        byDate.entrySet().stream()
+            .sorted(Map.Entry.<LocalDate, Map<String, Object>>comparingByKey().reversed())
+            .forEach(entry -> merged.add(entry.getValue()));
+        return merged;
     }
     
+    @Timed(value = "transactions.queries", extraTags = { "query", "staff_performance_summary" }, histogram = true)
     public List<Object> getStaffPerformanceSummary(LocalDate startDate, LocalDate endDate) {
-        return transactionRepository.getStaffPerformanceSummary(startDate, endDate);
+        List<Object> summary = transactionRepository.getStaffPerformanceSummary(startDate, endDate);
+        if (!archivalService.reachesArchive(startDate)) {
+            return summary;
+        }
+        
+        // Merge archived totals into the hot rows, keyed by employee
+        Map<String, Map<String, Object>> byEmployee = new LinkedHashMap<>();
+        for (Object row : summary) {
+            Map<String, Object> values = new LinkedHashMap<>(asMap(row));
+            byEmployee.put(String.valueOf(values.get("employeeId")), values);
+        }
+        for (Object[] row : transactionRepository.getArchivedStaffPerformanceSummary(startDate, endDate)) {
+            Map<String, Object> values = byEmployee.computeIfAbsent(String.valueOf(row[0]), employeeId -> {
+                Map<String, Object> empty = new LinkedHashMap<>();
+                empty.put("employeeId", employeeId);
+                empty.put("staffName", row[1]);
+                return empty;
+            });
+            addLong(values, "transactionCount", row[2]);
+            addAmount(values, "totalSales", row[3]);
+            addAmount(values, "cashHandled", row[4]);
+        }
+        
+        for (Map<String, Object> values : byEmployee.values()) {
+            long count = toLong(values.get("transactionCount"));
+            values.put("avgTransactionAmount", count > 0
+                ? toBigDecimal(values.get("totalSales")).divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO);
+        }
+        
+        List<Object> merged = new ArrayList<>(byEmployee.size());
+        byEmployee.values().stream()
+            .sorted(Comparator.comparing((Map<String, Object> values) -> toBigDecimal(values.get("totalSales"))).reversed())
+            .forEach(merged::add);
+        return merged;
+    }
+    
+    // Archive merge helpers
+    
+    private List<Transaction> mergeByCreatedAtDesc(List<Transaction> hot, List<Transaction> archived) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        List<Transaction> merged = new ArrayList<>(hot.size() + archived.size());
+        merged.addAll(hot);
+        merged.addAll(archived);
+        merged.sort(Comparator.comparing(Transaction::getCreatedAt,
+            Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder())));
+        return merged;
+    }
+    
+    /**
+     * Changes whenever a transaction dated in the range is added, refunded, voided
+     * or archived, so reports over closed days can be cached under it
+     */
+    @Transactional(readOnly = true)
+    public String getReportVersion(LocalDate startDate, LocalDate endDate) {
+        StringBuilder version = new StringBuilder(32);
+        appendStamp(version, firstRow(transactionRepository.getChangeStamp(startDate, endDate)));
+        if (archivalService.reachesArchive(startDate)) {
+            version.append('-');
+            appendStamp(version, firstRow(transactionRepository.getArchivedChangeStamp(startDate, endDate)));
+        }
+        return version.toString();
+    }
+    
+    private static void appendStamp(StringBuilder version, Object[] stamp) {
+        Object lastChange = stamp[1];
+        if (lastChange instanceof java.sql.Timestamp timestamp) {
+            lastChange = timestamp.toLocalDateTime();
+        }
+        long millis = lastChange instanceof LocalDateTime time ? time.toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+        version.append(toLong(stamp[0])).append('.').append(Long.toString(millis, 36));
+    }
+    
+    private static Object[] firstRow(List<Object[]> rows) {
+        return rows.isEmpty() ? new Object[] { 0L, null, null, null, null, null } : rows.get(0);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Object row) {
+        return (Map<String, Object>) row;
+    }
+    
+    private static void addLong(Map<String, Object> values, String key, Object value) {
+        values.put(key, toLong(values.get(key)) + toLong(value));
+    }
+    
+    private static void addAmount(Map<String, Object> values, String key, Object value) {
+        values.put(key, toBigDecimal(values.get(key)).add(toBigDecimal(value)));
+    }
+    
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+    
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        return value instanceof Number number ? new BigDecimal(number.toString()) : BigDecimal.ZERO;
+    }
+    
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof LocalDate date) {
+            return date;
+        }
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate();
+        }
+        return LocalDate.parse(String.valueOf(value));
     }
     
     // DTO Classes
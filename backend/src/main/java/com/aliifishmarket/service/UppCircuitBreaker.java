@@ -0,0 +1,163 @@
+package com.aliifishmarket.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Circuit breaker shared by all UPP calls.
+ *
+ * CLOSED: calls flow and outcomes are recorded in a count-based sliding window.
+ * When at least minimum-calls outcomes are in the window and the failure rate
+ * reaches the threshold, the breaker OPENs and rejects calls without touching
+ * the network. After open-duration it goes HALF_OPEN and lets a few probe calls
+ * through: if they all succeed it closes, any failure re-opens it.
+ */
+@Service
+public class UppCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(UppCircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.upp.circuit-breaker.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.upp.circuit-breaker.window-size:20}")
+    private int windowSize;
+
+    @Value("${app.upp.circuit-breaker.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${app.upp.circuit-breaker.failure-rate-threshold:0.5}")
+    private double failureRateThreshold;
+
+    @Value("${app.upp.circuit-breaker.open-duration-ms:15000}")
+    private long openDurationMs;
+
+    @Value("${app.upp.circuit-breaker.half-open-probes:3}")
+    private int halfOpenProbes;
+
+    private State state = State.CLOSED;
+    private boolean[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    @PostConstruct
+    public void init() {
+        window = new boolean[windowSize];
+        meterRegistry.gauge("upp.circuit.state", this, breaker -> breaker.getState().ordinal());
+    }
+
+    /**
+     * Whether a call may go to UPP now. Every permitted call must later report
+     * onSuccess or onFailure.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (!enabled) {
+            return true;
+        }
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openDurationMs) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= halfOpenProbes) {
+                return false;
+            }
+            probesStarted++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (!enabled) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            if (++probesSucceeded >= halfOpenProbes) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (!enabled) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && windowCount >= minimumCalls
+                && (double) windowFailures / windowCount >= failureRateThreshold) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    /**
+     * A permitted call that ended without an outcome (e.g. cancelled)
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && probesStarted > probesSucceeded) {
+            probesStarted--;
+        }
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openDurationMs) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == windowSize) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % windowSize;
+    }
+
+    private void transitionTo(State next) {
+        if (next == State.OPEN) {
+            logger.warn("UPP circuit breaker opened ({} of last {} calls failed)", windowFailures, windowCount);
+            openedAt = System.currentTimeMillis();
+        } else {
+            logger.info("UPP circuit breaker {}", next == State.CLOSED ? "closed" : "half-open, probing");
+        }
+        state = next;
+        probesStarted = 0;
+        probesSucceeded = 0;
+        if (next == State.CLOSED) {
+            windowIndex = 0;
+            windowCount = 0;
+            windowFailures = 0;
+        }
+        meterRegistry.counter("upp.circuit.transitions", "state", next.name()).increment();
+    }
+}
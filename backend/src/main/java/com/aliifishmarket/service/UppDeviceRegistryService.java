@@ -0,0 +1,221 @@
+package com.aliifishmarket.service;
+
+import com.aliifishmarket.model.UppDeviceRegistration;
+import com.aliifishmarket.repository.UppDeviceRegistrationRepository;
+import com.aliifishmarket.service.UppIntegrationService.UppDeviceRequest;
+import com.aliifishmarket.service.UppIntegrationService.UppDeviceResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Persistent cache of UPP device registrations keyed by device fingerprint and
+ * staff member.
+ *
+ * Restarting tablets get their UPP deviceId from here with no UPP round trip.
+ * Entries expire after a TTL; once an entry is inside the refresh-ahead window it
+ * is still served, and a single background registration renews it. Concurrent
+ * registrations of the same device share one UPP call.
+ */
+@Service
+public class UppDeviceRegistryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UppDeviceRegistryService.class);
+
+    @Autowired
+    private UppIntegrationService uppIntegrationService;
+
+    @Autowired
+    private UppDeviceRegistrationRepository registrationRepository;
+
+    @Value("${app.upp.devices.ttl-hours:168}")
+    private long ttlHours;
+
+    @Value("${app.upp.devices.refresh-ahead-hours:24}")
+    private long refreshAheadHours;
+
+    private final Map<String, CachedDevice> devices = new ConcurrentHashMap<>();
+
+    private final Map<String, Mono<UppDeviceResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Registered UPP device for this tablet and staff member, registering with UPP
+     * only when there is no unexpired registration for the same device type and
+     * capabilities
+     */
+    public Mono<UppDeviceResponse> register(DeviceRegistrationRequest request) {
+        String key = key(request.getFingerprint(), request.getStaffMemberId());
+        String capabilities = normalizeCapabilities(request.getCapabilities());
+
+        return Mono.fromCallable(() -> lookup(key, request).orElse(null))
+            .subscribeOn(Schedulers.boundedElastic())
+            .filter(cached -> cached.matches(request.getDeviceType(), capabilities)
+                && !cached.isExpired(LocalDateTime.now()))
+            .map(cached -> {
+                if (LocalDateTime.now().isAfter(cached.expiresAt.minusHours(refreshAheadHours))) {
+                    refreshInBackground(key, request);
+                }
+                return toResponse(cached);
+            })
+            .switchIfEmpty(Mono.defer(() -> registerWithUpp(key, request)));
+    }
+
+    /**
+     * Remove long-expired rows
+     */
+    @Scheduled(cron = "${app.upp.devices.cleanup-cron:0 0 4 * * *}", zone = "${app.business.timezone:Pacific/Honolulu}")
+    @Transactional
+    public void deleteExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(refreshAheadHours);
+        int deleted = registrationRepository.deleteExpiredBefore(cutoff);
+        devices.values().removeIf(device -> device.expiresAt.isBefore(cutoff));
+        if (deleted > 0) {
+            logger.info("Deleted {} expired UPP device registrations", deleted);
+        }
+    }
+
+    private Optional<CachedDevice> lookup(String key, DeviceRegistrationRequest request) {
+        CachedDevice cached = devices.get(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<CachedDevice> stored = registrationRepository
+            .findByFingerprintAndStaffMemberId(request.getFingerprint(), request.getStaffMemberId())
+            .map(CachedDevice::new);
+        stored.ifPresent(device -> devices.putIfAbsent(key, device));
+        return stored;
+    }
+
+    private Mono<UppDeviceResponse> registerWithUpp(String key, DeviceRegistrationRequest request) {
+        return inFlight.computeIfAbsent(key, k -> {
+            AtomicReference<Mono<UppDeviceResponse>> self = new AtomicReference<>();
+            UppDeviceRequest uppRequest = uppIntegrationService.createDeviceRequest(request.getDeviceType(),
+                request.getCapabilities(), request.getFingerprint(), request.getStaffMemberId());
+            Mono<UppDeviceResponse> call = uppIntegrationService.registerDevice(uppRequest)
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(response -> {
+                    if (response.isSuccess() && response.getDeviceId() != null) {
+                        store(key, request, response.getDeviceId());
+                    }
+                })
+                .doFinally(signal -> inFlight.remove(k, self.get()))
+                .cache();
+            self.set(call);
+            return call;
+        });
+    }
+
+    private void refreshInBackground(String key, DeviceRegistrationRequest request) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        registerWithUpp(key, request)
+            .doFinally(signal -> refreshing.remove(key))
+            .subscribe(
+                response -> logger.debug("Refreshed UPP device registration for {}", request.getStaffMemberId()),
+                error -> logger.warn("Refresh-ahead of UPP device registration failed: {}", error.getMessage()));
+    }
+
+    private void store(String key, DeviceRegistrationRequest request, String uppDeviceId) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            UppDeviceRegistration registration = registrationRepository
+                .findByFingerprintAndStaffMemberId(request.getFingerprint(), request.getStaffMemberId())
+                .orElseGet(() -> new UppDeviceRegistration(request.getFingerprint(), request.getStaffMemberId()));
+            registration.setDeviceType(request.getDeviceType());
+            registration.setCapabilities(normalizeCapabilities(request.getCapabilities()));
+            registration.setUppDeviceId(uppDeviceId);
+            registration.setRegisteredAt(now);
+            registration.setExpiresAt(now.plusHours(ttlHours));
+            devices.put(key, new CachedDevice(registrationRepository.save(registration)));
+        } catch (Exception e) {
+            // The registration itself succeeded; the next start just asks UPP again
+            logger.warn("Failed to persist UPP device registration: {}", e.getMessage());
+        }
+    }
+
+    private static UppDeviceResponse toResponse(CachedDevice device) {
+        UppDeviceResponse response = new UppDeviceResponse();
+        response.setSuccess(true);
+        response.setDeviceId(device.uppDeviceId);
+        return response;
+    }
+
+    private static String key(String fingerprint, String staffMemberId) {
+        return fingerprint + '|' + staffMemberId;
+    }
+
+    static String normalizeCapabilities(String[] capabilities) {
+        if (capabilities == null) {
+            return "";
+        }
+        return Arrays.stream(capabilities)
+            .filter(Objects::nonNull)
+            .map(String::trim)
+            .sorted()
+            .distinct()
+            .collect(Collectors.joining(","));
+    }
+
+    private static final class CachedDevice {
+        final String deviceType;
+        final String capabilities;
+        final String uppDeviceId;
+        final LocalDateTime expiresAt;
+
+        CachedDevice(UppDeviceRegistration registration) {
+            this.deviceType = registration.getDeviceType();
+            this.capabilities = registration.getCapabilities() != null ? registration.getCapabilities() : "";
+            this.uppDeviceId = registration.getUppDeviceId();
+            this.expiresAt = registration.getExpiresAt();
+        }
+
+        boolean matches(String deviceType, String capabilities) {
+            return Objects.equals(this.deviceType, deviceType) && this.capabilities.equals(capabilities);
+        }
+
+        boolean isExpired(LocalDateTime now) {
+            return !now.isBefore(expiresAt);
+        }
+    }
+
+    // DTOs
+
+    public static class DeviceRegistrationRequest {
+        private String deviceType;
+        private String[] capabilities;
+        private String fingerprint;
+        private String staffMemberId;
+
+        // Getters and setters
+        public String getDeviceType() { return deviceType; }
+        public void setDeviceType(String deviceType) { this.deviceType = deviceType; }
+
+        public String[] getCapabilities() { return capabilities; }
+        public void setCapabilities(String[] capabilities) { this.capabilities = capabilities; }
+
+        public String getFingerprint() { return fingerprint; }
+        public void setFingerprint(String fingerprint) { this.fingerprint = fingerprint; }
+
+        public String getStaffMemberId() { return staffMemberId; }
+        public void setStaffMemberId(String staffMemberId) { this.staffMemberId = staffMemberId; }
+    }
+}
@@ -1,18 +1,39 @@
 package com.aliifishmarket.service;
 
+import com.aliifishmarket.exception.UppIntegrationException;
+import com.aliifishmarket.exception.UppUnavailableException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
 import java.math.BigDecimal;
-import java.util.HashMap;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 /**
  * Service for integrating with Universal Payment Protocol (UPP)
@@ -22,22 +43,59 @@ import java.util.Map;
 public class UppIntegrationService {
     
     private static final Logger logger = LoggerFactory.getLogger(UppIntegrationService.class);
+
+    static final String PROCESS_PAYMENT = "/api/process-payment";
+    static final String PAYMENT_STATUS = "/api/payment-status";
+    static final String REGISTER_DEVICE = "/api/register-device";
+    static final String LIST_PAYMENTS = "/api/payments";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String SIGNATURE_PREFIX = "sha256=";
     
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore bulkhead;
+    private final UppCircuitBreaker circuitBreaker;
+    private final RequestTiming requestTiming;
+
+    // Mac is not thread-safe and costly to initialise, so each thread keeps one
+    private final ThreadLocal<Mac> webhookMac = ThreadLocal.withInitial(this::createWebhookMac);
     
     @Value("${app.upp.api-key}")
     private String uppApiKey;
     
     @Value("${app.upp.webhook-secret}")
     private String webhookSecret;
+
+    @Value("${app.upp.client.deadlines.process-payment-ms:15000}")
+    private long processPaymentDeadlineMs;
+
+    @Value("${app.upp.client.deadlines.payment-status-ms:3000}")
+    private long paymentStatusDeadlineMs;
+
+    @Value("${app.upp.client.deadlines.register-device-ms:5000}")
+    private long registerDeviceDeadlineMs;
+
+    @Value("${app.upp.client.hedge.enabled:true}")
+    private boolean hedgeEnabled;
+
+    @Value("${app.upp.client.hedge.delay-ms:300}")
+    private long hedgeDelayMs;
+
+    @Value("${app.upp.fallback-payment-methods:CASH,CARD}")
+    private List<String> fallbackPaymentMethods;
     
-    public UppIntegrationService(@Value("${app.upp.api-url}") String uppApiUrl, ObjectMapper objectMapper) {
-        this.webClient = WebClient.builder()
-                .baseUrl(uppApiUrl)
-                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .build();
+    public UppIntegrationService(WebClient uppWebClient, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                 UppCircuitBreaker circuitBreaker, RequestTiming requestTiming,
+                                 @Value("${app.upp.client.max-concurrent-calls:32}") int maxConcurrentCalls) {
+        this.webClient = uppWebClient;
         this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.circuitBreaker = circuitBreaker;
+        this.requestTiming = requestTiming;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        meterRegistry.gauge("upp.client.in.flight", bulkhead, b -> maxConcurrentCalls - b.availablePermits());
     }
     
     /**
@@ -47,12 +105,12 @@ public class UppIntegrationService {
         logger.info("Processing UPP payment for amount: ${} via device: {}", 
                    request.getAmount(), request.getDeviceType());
         
-        return webClient.post()
-                .uri("/api/process-payment")
+        return call(PROCESS_PAYMENT, processPaymentDeadlineMs, () -> webClient.post()
+                .uri(PROCESS_PAYMENT)
                 .header("Authorization", "Bearer " + uppApiKey)
                 .bodyValue(request)
                 .retrieve()
-                .bodyToMono(UppPaymentResponse.class)
+                .bodyToMono(UppPaymentResponse.class))
                 .doOnSuccess(response -> {
                     if (response.isSuccess()) {
                         logger.info("UPP payment successful: {}", response.getPaymentId());
@@ -62,7 +120,9 @@ public class UppIntegrationService {
                 })
                 .doOnError(error -> {
                     logger.error("Error processing UPP payment: {}", error.getMessage(), error);
-                });
+                })
+                // Only when the request never left: after a timeout the charge may have gone through
+                .onErrorResume(UppUnavailableException.class, error -> Mono.just(fallbackResponse(error)));
     }
     
     /**
@@ -72,12 +132,12 @@ public class UppIntegrationService {
         logger.info("Registering UPP device: {} with capabilities: {}", 
                    request.getDeviceType(), request.getCapabilities());
         
-        return webClient.post()
-                .uri("/api/register-device")
+        return call(REGISTER_DEVICE, registerDeviceDeadlineMs, () -> webClient.post()
+                .uri(REGISTER_DEVICE)
                 .header("Authorization", "Bearer " + uppApiKey)
                 .bodyValue(request)
                 .retrieve()
-                .bodyToMono(UppDeviceResponse.class)
+                .bodyToMono(UppDeviceResponse.class))
                 .doOnSuccess(response -> {
                     if (response.isSuccess()) {
                         logger.info("UPP device registered successfully: {}", response.getDeviceId());
@@ -96,15 +156,155 @@ public class UppIntegrationService {
     public Mono<UppPaymentStatus> getPaymentStatus(String paymentId) {
         logger.debug("Getting UPP payment status for: {}", paymentId);
         
-        return webClient.get()
-                .uri("/api/payment-status/{paymentId}", paymentId)
+        Mono<UppPaymentStatus> attempt = call(PAYMENT_STATUS, paymentStatusDeadlineMs, () -> webClient.get()
+                .uri(PAYMENT_STATUS + "/{paymentId}", paymentId)
                 .header("Authorization", "Bearer " + uppApiKey)
                 .retrieve()
-                .bodyToMono(UppPaymentStatus.class)
+                .bodyToMono(UppPaymentStatus.class));
+
+        return hedged(attempt)
                 .doOnError(error -> {
                     logger.error("Error getting UPP payment status: {}", error.getMessage(), error);
                 });
     }
+
+    /**
+     * Stream a day's UPP payments as NDJSON, sorted by paymentId. Not bulkheaded
+     * or deadline-bound like the checkout calls: it is a long-lived batch read.
+     */
+    public Flux<UppPaymentStatus> streamPayments(LocalDate date) {
+        RequestTiming.Timings timings = requestTiming.current();
+        return Flux.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            long started = System.nanoTime();
+            return webClient.get()
+                    .uri(uri -> uri.path(LIST_PAYMENTS)
+                        .queryParam("date", date)
+                        .queryParam("sort", "paymentId")
+                        .build())
+                    .header("Authorization", "Bearer " + uppApiKey)
+                    .accept(MediaType.APPLICATION_NDJSON)
+                    .retrieve()
+                    .bodyToFlux(UppPaymentStatus.class)
+                    .doOnComplete(() -> sample.stop(requestTimer(LIST_PAYMENTS, "SUCCESS")))
+                    .doOnError(error -> sample.stop(requestTimer(LIST_PAYMENTS, outcome(error))))
+                    .doOnCancel(() -> sample.stop(requestTimer(LIST_PAYMENTS, "CANCELLED")))
+                    .doFinally(signal -> recordRequestTime(timings, started));
+        });
+    }
+
+    /**
+     * For idempotent reads: if the first attempt has not answered within the hedge
+     * delay, send a second one and take whichever succeeds first. The slower one
+     * is cancelled. Hedges are skipped while the circuit is not closed.
+     */
+    private <T> Mono<T> hedged(Mono<T> attempt) {
+        if (!hedgeEnabled) {
+            return attempt;
+        }
+        return Mono.defer(() -> {
+            // Hedge against slowness only: a fast failure of the first attempt ends the race
+            Sinks.Empty<Void> primaryFailed = Sinks.empty();
+            Mono<T> primary = attempt.doOnError(error -> primaryFailed.tryEmitEmpty());
+            Mono<T> hedge = Mono.delay(Duration.ofMillis(hedgeDelayMs))
+                .takeUntilOther(primaryFailed.asMono())
+                .filter(tick -> circuitBreaker.getState() == UppCircuitBreaker.State.CLOSED)
+                .flatMap(tick -> {
+                    meterRegistry.counter("upp.client.hedged").increment();
+                    return attempt;
+                });
+            return Mono.firstWithValue(primary, hedge);
+        }).onErrorMap(NoSuchElementException.class, error -> error.getSuppressed().length > 0
+            ? error.getSuppressed()[0]
+            : new UppIntegrationException("UPP returned no payment status", null, null));
+    }
+
+    private UppPaymentResponse fallbackResponse(UppUnavailableException error) {
+        meterRegistry.counter("upp.client.fallback", "endpoint", PROCESS_PAYMENT).increment();
+        UppPaymentResponse response = new UppPaymentResponse();
+        response.setSuccess(false);
+        response.setError("Digital payments are temporarily unavailable. Please take "
+            + String.join(" or ", fallbackPaymentMethods) + ".");
+        response.setFallbackPaymentMethods(fallbackPaymentMethods);
+        return response;
+    }
+
+    /**
+     * Run one UPP call through the circuit breaker and bulkhead with a deadline,
+     * timing it per endpoint. When the circuit is open or the bulkhead is full the
+     * call is rejected immediately with UppUnavailableException.
+     */
+    private <T> Mono<T> call(String endpoint, long deadlineMs, Supplier<Mono<T>> request) {
+        // Taken on the calling request thread; the call completes on a reactor thread
+        RequestTiming.Timings timings = requestTiming.current();
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                meterRegistry.counter("upp.client.rejected", "endpoint", endpoint, "reason", "circuit_open").increment();
+                return Mono.error(new UppUnavailableException("UPP circuit open, rejected " + endpoint));
+            }
+            if (!bulkhead.tryAcquire()) {
+                circuitBreaker.onIgnored();
+                meterRegistry.counter("upp.client.rejected", "endpoint", endpoint, "reason", "bulkhead_full").increment();
+                return Mono.error(new UppUnavailableException("Too many concurrent UPP calls, rejected " + endpoint));
+            }
+
+            AtomicBoolean recorded = new AtomicBoolean(false);
+            Timer.Sample sample = Timer.start(meterRegistry);
+            long started = System.nanoTime();
+            return request.get()
+                .timeout(Duration.ofMillis(deadlineMs))
+                .onErrorMap(TimeoutException.class, e -> new UppIntegrationException(
+                    "UPP " + endpoint + " exceeded deadline of " + deadlineMs + "ms", null, null, e))
+                .doOnEach(signal -> {
+                    if (!signal.isOnSubscribe() && recorded.compareAndSet(false, true)) {
+                        String outcome = outcome(signal.getThrowable());
+                        sample.stop(requestTimer(endpoint, outcome));
+                        // A 4xx is our request's fault, not a sign UPP is unhealthy
+                        if (outcome.equals("SUCCESS") || outcome.equals("CLIENT_ERROR")) {
+                            circuitBreaker.onSuccess();
+                        } else {
+                            circuitBreaker.onFailure();
+                        }
+                    }
+                })
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL && recorded.compareAndSet(false, true)) {
+                        sample.stop(requestTimer(endpoint, "CANCELLED"));
+                        circuitBreaker.onIgnored();
+                    }
+                    bulkhead.release();
+                    recordRequestTime(timings, started);
+                });
+        });
+    }
+
+    private static void recordRequestTime(RequestTiming.Timings timings, long started) {
+        if (timings != null) {
+            timings.add(RequestTiming.Phase.UPP, System.nanoTime() - started);
+        }
+    }
+
+    private Timer requestTimer(String endpoint, String outcome) {
+        return Timer.builder("upp.client.requests")
+            .description("Latency of calls to the UPP service")
+            .tag("endpoint", endpoint)
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    private static String outcome(Throwable error) {
+        if (error == null) {
+            return "SUCCESS";
+        }
+        if (error instanceof UppIntegrationException && error.getCause() instanceof TimeoutException) {
+            return "TIMEOUT";
+        }
+        if (error instanceof WebClientResponseException responseError) {
+            return responseError.getStatusCode().is4xxClientError() ? "CLIENT_ERROR" : "SERVER_ERROR";
+        }
+        return "IO_ERROR";
+    }
     
     /**
      * Create UPP payment request for fish market order
@@ -119,13 +319,9 @@ public class UppIntegrationService {
         request.setDescription("Ali'i Fish Market Order #" + orderNumber);
         request.setCustomerEmail(customerEmail);
         
-        // Add metadata for fish market specific information
-        Map<String, Object> metadata = new HashMap<>();
-        metadata.put("orderNumber", orderNumber);
-        metadata.put("customerName", customerName);
-        metadata.put("merchant", "Ali'i Fish Market");
-        metadata.put("location", "Honolulu, HI");
-        request.setMetadata(metadata);
+        // Merchant and location are constant fragments written by the serializer
+        request.setOrderNumber(orderNumber);
+        request.setCustomerName(customerName);
         
         return request;
     }
@@ -140,38 +336,69 @@ public class UppIntegrationService {
         request.setCapabilities(capabilities);
         request.setFingerprint(fingerprint);
         
-        Map<String, Object> securityContext = new HashMap<>();
-        securityContext.put("merchant", "Ali'i Fish Market");
-        securityContext.put("staffMemberId", staffMemberId);
-        securityContext.put("location", "Honolulu, HI");
-        request.setSecurityContext(securityContext);
+        request.setStaffMemberId(staffMemberId);
         
         return request;
     }
     
     /**
-     * Verify webhook signature for security
+     * Verify webhook signature for security: hex HMAC-SHA256 of the raw body keyed
+     * with app.upp.webhook-secret, optionally prefixed with "sha256="
      */
     public boolean verifyWebhookSignature(String payload, String signature) {
-        // Implement webhook signature verification
-        // This should match the UPP webhook signature algorithm
+        return payload != null && verifyWebhookSignature(payload.getBytes(StandardCharsets.UTF_8), signature);
+    }
+
+    public boolean verifyWebhookSignature(byte[] payload, String signature) {
+        if (payload == null || signature == null || signature.isBlank()) {
+            return false;
+        }
         try {
-            // Placeholder for actual signature verification
-            return true;
+            String hex = signature.trim();
+            if (hex.regionMatches(true, 0, SIGNATURE_PREFIX, 0, SIGNATURE_PREFIX.length())) {
+                hex = hex.substring(SIGNATURE_PREFIX.length());
+            }
+            byte[] expected = HexFormat.of().parseHex(hex);
+            return MessageDigest.isEqual(computeWebhookSignature(payload), expected);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Malformed webhook signature header");
+            return false;
         } catch (Exception e) {
             logger.error("Error verifying webhook signature: {}", e.getMessage(), e);
             return false;
         }
     }
+
+    /**
+     * Raw HMAC-SHA256 of a webhook body using this thread's Mac
+     */
+    public byte[] computeWebhookSignature(byte[] payload) {
+        Mac mac = webhookMac.get();
+        mac.reset();
+        return mac.doFinal(payload);
+    }
+
+    private Mac createWebhookMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(webhookSecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialise webhook HMAC", e);
+        }
+    }
     
     // DTOs for UPP integration
     
+    @JsonSerialize(using = UppRequestSerializers.PaymentRequestSerializer.class)
     public static class UppPaymentRequest {
         private BigDecimal amount;
         private String deviceType;
         private String deviceId;
         private String description;
         private String customerEmail;
+        private String orderNumber;
+        private String customerName;
         private Map<String, Object> metadata;
         
         // Getters and setters
@@ -190,6 +417,15 @@ public class UppIntegrationService {
         public String getCustomerEmail() { return customerEmail; }
         public void setCustomerEmail(String customerEmail) { this.customerEmail = customerEmail; }
         
+        /** Sent as metadata.orderNumber */
+        public String getOrderNumber() { return orderNumber; }
+        public void setOrderNumber(String orderNumber) { this.orderNumber = orderNumber; }
+        
+        /** Sent as metadata.customerName */
+        public String getCustomerName() { return customerName; }
+        public void setCustomerName(String customerName) { this.customerName = customerName; }
+        
+        /** Metadata entries beyond orderNumber, customerName and the merchant constants */
         public Map<String, Object> getMetadata() { return metadata; }
         public void setMetadata(Map<String, Object> metadata) { this.metadata = metadata; }
     }
@@ -200,6 +436,7 @@ public class UppIntegrationService {
         private String transactionId;
         private String error;
         private String paymentUrl;
+        private List<String> fallbackPaymentMethods;
         
         // Getters and setters
         public boolean isSuccess() { return success; }
@@ -216,12 +453,20 @@ public class UppIntegrationService {
         
         public String getPaymentUrl() { return paymentUrl; }
         public void setPaymentUrl(String paymentUrl) { this.paymentUrl = paymentUrl; }
+        
+        /** Set when UPP was unavailable: payment methods the cashier should offer instead */
+        public List<String> getFallbackPaymentMethods() { return fallbackPaymentMethods; }
+        public void setFallbackPaymentMethods(List<String> fallbackPaymentMethods) {
+            this.fallbackPaymentMethods = fallbackPaymentMethods;
+        }
     }
     
+    @JsonSerialize(using = UppRequestSerializers.DeviceRequestSerializer.class)
     public static class UppDeviceRequest {
         private String deviceType;
         private String[] capabilities;
         private String fingerprint;
+        private String staffMemberId;
         private Map<String, Object> securityContext;
         
         // Getters and setters
@@ -234,6 +479,11 @@ public class UppIntegrationService {
         public String getFingerprint() { return fingerprint; }
         public void setFingerprint(String fingerprint) { this.fingerprint = fingerprint; }
         
+        /** Sent as securityContext.staffMemberId */
+        public String getStaffMemberId() { return staffMemberId; }
+        public void setStaffMemberId(String staffMemberId) { this.staffMemberId = staffMemberId; }
+        
+        /** Security context entries beyond staffMemberId and the merchant constants */
         public Map<String, Object> getSecurityContext() { return securityContext; }
         public void setSecurityContext(Map<String, Object> securityContext) { 
             this.securityContext = securityContext; 
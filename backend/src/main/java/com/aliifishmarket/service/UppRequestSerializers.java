@@ -0,0 +1,170 @@
+package com.aliifishmarket.service;
+
+import com.aliifishmarket.service.UppIntegrationService.UppDeviceRequest;
+import com.aliifishmarket.service.UppIntegrationService.UppPaymentRequest;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hand-written Jackson serializers for the outbound UPP requests.
+ *
+ * Field names and the constant merchant fragments are pre-encoded once as
+ * {@link SerializedString}s, whose quoted UTF-8 bytes the generator copies
+ * straight into its buffer. Only per-request values are encoded on each call,
+ * and no metadata map is built or introspected. The wire format is the same as
+ * the reflective bean serialization it replaces.
+ */
+public final class UppRequestSerializers {
+
+    static final String MERCHANT_NAME = "Ali'i Fish Market";
+    static final String MERCHANT_LOCATION = "Honolulu, HI";
+
+    private static final SerializedString AMOUNT = encoded("amount");
+    private static final SerializedString DEVICE_TYPE = encoded("deviceType");
+    private static final SerializedString DEVICE_ID = encoded("deviceId");
+    private static final SerializedString DESCRIPTION = encoded("description");
+    private static final SerializedString CUSTOMER_EMAIL = encoded("customerEmail");
+    private static final SerializedString METADATA = encoded("metadata");
+    private static final SerializedString ORDER_NUMBER = encoded("orderNumber");
+    private static final SerializedString CUSTOMER_NAME = encoded("customerName");
+    private static final SerializedString CAPABILITIES = encoded("capabilities");
+    private static final SerializedString FINGERPRINT = encoded("fingerprint");
+    private static final SerializedString SECURITY_CONTEXT = encoded("securityContext");
+    private static final SerializedString STAFF_MEMBER_ID = encoded("staffMemberId");
+    private static final SerializedString MERCHANT = encoded("merchant");
+    private static final SerializedString LOCATION = encoded("location");
+
+    private static final Set<String> STANDARD_KEYS = Set.of(
+        "orderNumber", "customerName", "staffMemberId", "merchant", "location");
+
+    private static final SerializedString MERCHANT_NAME_VALUE = encoded(MERCHANT_NAME);
+    private static final SerializedString MERCHANT_LOCATION_VALUE = encoded(MERCHANT_LOCATION);
+
+    private UppRequestSerializers() {
+    }
+
+    public static class PaymentRequestSerializer extends StdSerializer<UppPaymentRequest> {
+
+        public PaymentRequestSerializer() {
+            super(UppPaymentRequest.class);
+        }
+
+        @Override
+        public void serialize(UppPaymentRequest request, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            gen.writeStartObject(request);
+            gen.writeFieldName(AMOUNT);
+            if (request.getAmount() != null) {
+                gen.writeNumber(request.getAmount());
+            } else {
+                gen.writeNull();
+            }
+            writeString(gen, DEVICE_TYPE, request.getDeviceType());
+            writeString(gen, DEVICE_ID, request.getDeviceId());
+            writeString(gen, DESCRIPTION, request.getDescription());
+            writeString(gen, CUSTOMER_EMAIL, request.getCustomerEmail());
+
+            gen.writeFieldName(METADATA);
+            gen.writeStartObject();
+            writeString(gen, ORDER_NUMBER, standard(request.getOrderNumber(), request.getMetadata(), "orderNumber"));
+            writeString(gen, CUSTOMER_NAME, standard(request.getCustomerName(), request.getMetadata(), "customerName"));
+            writeExtra(gen, request.getMetadata(), provider);
+            writeMerchant(gen);
+            gen.writeEndObject();
+
+            gen.writeEndObject();
+        }
+    }
+
+    public static class DeviceRequestSerializer extends StdSerializer<UppDeviceRequest> {
+
+        public DeviceRequestSerializer() {
+            super(UppDeviceRequest.class);
+        }
+
+        @Override
+        public void serialize(UppDeviceRequest request, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            gen.writeStartObject(request);
+            writeString(gen, DEVICE_TYPE, request.getDeviceType());
+
+            gen.writeFieldName(CAPABILITIES);
+            String[] capabilities = request.getCapabilities();
+            if (capabilities != null) {
+                gen.writeArray(capabilities, 0, capabilities.length);
+            } else {
+                gen.writeNull();
+            }
+            writeString(gen, FINGERPRINT, request.getFingerprint());
+
+            gen.writeFieldName(SECURITY_CONTEXT);
+            gen.writeStartObject();
+            writeString(gen, STAFF_MEMBER_ID,
+                standard(request.getStaffMemberId(), request.getSecurityContext(), "staffMemberId"));
+            writeExtra(gen, request.getSecurityContext(), provider);
+            writeMerchant(gen);
+            gen.writeEndObject();
+
+            gen.writeEndObject();
+        }
+    }
+
+    private static void writeString(JsonGenerator gen, SerializedString name, String value) throws IOException {
+        gen.writeFieldName(name);
+        if (value != null) {
+            gen.writeString(value);
+        } else {
+            gen.writeNull();
+        }
+    }
+
+    /**
+     * Typed value, or the same key from a map populated by deserialization
+     */
+    private static String standard(String value, Map<String, Object> extra, String key) {
+        if (value != null || extra == null) {
+            return value;
+        }
+        Object fromMap = extra.get(key);
+        return fromMap != null ? fromMap.toString() : null;
+    }
+
+    private static void writeMerchant(JsonGenerator gen) throws IOException {
+        gen.writeFieldName(MERCHANT);
+        gen.writeString(MERCHANT_NAME_VALUE);
+        gen.writeFieldName(LOCATION);
+        gen.writeString(MERCHANT_LOCATION_VALUE);
+    }
+
+    /**
+     * Caller-supplied metadata beyond the typed fields, written with the regular
+     * serializers. Keys the serializer writes itself are skipped.
+     */
+    private static void writeExtra(JsonGenerator gen, Map<String, Object> extra, SerializerProvider provider)
+            throws IOException {
+        if (extra == null || extra.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<String, Object> entry : extra.entrySet()) {
+            if (STANDARD_KEYS.contains(entry.getKey())) {
+                continue;
+            }
+            gen.writeFieldName(entry.getKey());
+            provider.defaultSerializeValue(entry.getValue(), gen);
+        }
+    }
+
+    private static SerializedString encoded(String value) {
+        SerializedString serialized = new SerializedString(value);
+        // Prime the cached encodings so the first request doesn't pay for them
+        serialized.asQuotedUTF8();
+        serialized.asQuotedChars();
+        return serialized;
+    }
+}
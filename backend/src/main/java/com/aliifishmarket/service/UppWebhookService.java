@@ -0,0 +1,192 @@
+package com.aliifishmarket.service;
+
+import com.aliifishmarket.service.UppIntegrationService.UppPaymentStatus;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ingests UPP webhooks. The request thread only verifies the signature, reads
+ * the event id from the signed body, checks the dedup window and enqueues the
+ * raw body; parsing and applying the event happens on a small bounded worker
+ * pool. The X-UPP-Event-Id header is not signed, so it is never used as the
+ * dedup key. When the queue is full the delivery
+ * is refused so UPP retries it later instead of it being dropped.
+ */
+@Service
+public class UppWebhookService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UppWebhookService.class);
+
+    @Autowired
+    private UppIntegrationService uppIntegrationService;
+
+    @Autowired
+    private PaymentStatusRegistry paymentStatusRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.upp.webhook.dedup-window-size:10000}")
+    private int dedupWindowSize;
+
+    @Value("${app.upp.webhook.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${app.upp.webhook.worker-threads:2}")
+    private int workerThreads;
+
+    // Bounded FIFO window of recently accepted event ids
+    private final Map<String, Boolean> recentEventIds = new ConcurrentHashMap<>();
+    private final Queue<String> recentEventOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger recentEventCount = new AtomicInteger();
+
+    private ThreadPoolExecutor executor;
+
+    public enum Outcome { ACCEPTED, DUPLICATE, INVALID_SIGNATURE, OVERLOADED }
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "upp-webhook-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+        meterRegistry.gauge("upp.webhook.queue.size", executor, e -> e.getQueue().size());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Verify, deduplicate and enqueue one delivery. Never blocks.
+     */
+    public Outcome receive(byte[] body, String signature) {
+        if (!uppIntegrationService.verifyWebhookSignature(body, signature)) {
+            count(Outcome.INVALID_SIGNATURE);
+            return Outcome.INVALID_SIGNATURE;
+        }
+
+        // Without an id, a redelivery of the same payload still carries the same signature
+        String eventId = eventId(body);
+        String key = eventId != null && !eventId.isBlank()
+            ? eventId
+            : signature.trim().toLowerCase(Locale.ROOT).replaceFirst("^sha256=", "");
+        if (recentEventIds.putIfAbsent(key, Boolean.TRUE) != null) {
+            count(Outcome.DUPLICATE);
+            return Outcome.DUPLICATE;
+        }
+
+        try {
+            executor.execute(() -> process(body));
+        } catch (RejectedExecutionException e) {
+            recentEventIds.remove(key);
+            count(Outcome.OVERLOADED);
+            return Outcome.OVERLOADED;
+        }
+
+        remember(key);
+        count(Outcome.ACCEPTED);
+        return Outcome.ACCEPTED;
+    }
+
+    private void remember(String key) {
+        recentEventOrder.add(key);
+        if (recentEventCount.incrementAndGet() > dedupWindowSize) {
+            String oldest = recentEventOrder.poll();
+            if (oldest != null) {
+                recentEventIds.remove(oldest);
+                recentEventCount.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * The top-level "id" of a verified body, read without binding the rest of it
+     */
+    private String eventId(byte[] body) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (field.equals("id")) {
+                    return value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                }
+                parser.skipChildren();
+            }
+            return null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void process(byte[] body) {
+        try {
+            UppWebhookEvent event = objectMapper.readValue(body, UppWebhookEvent.class);
+            if (event.getData() != null && event.getData().getPaymentId() != null) {
+                paymentStatusRegistry.applyWebhookUpdate(event.getData());
+            }
+            logger.debug("Processed UPP webhook {} ({})", event.getId(), event.getType());
+        } catch (Exception e) {
+            logger.error("Failed to process UPP webhook: {}", e.getMessage(), e);
+        }
+    }
+
+    private void count(Outcome outcome) {
+        meterRegistry.counter("upp.webhook.received", "outcome", outcome.name()).increment();
+    }
+
+    /**
+     * Webhook envelope sent by UPP
+     */
+    public static class UppWebhookEvent {
+        private String id;
+        private String type;
+        private String createdAt;
+        private UppPaymentStatus data;
+
+        // Getters and setters
+        public String getId() { return id; }
+        public void setId(String id) { this.id = id; }
+
+        public String getType() { return type; }
+        public void setType(String type) { this.type = type; }
+
+        public String getCreatedAt() { return createdAt; }
+        public void setCreatedAt(String createdAt) { this.createdAt = createdAt; }
+
+        public UppPaymentStatus getData() { return data; }
+        public void setData(UppPaymentStatus data) { this.data = data; }
+    }
+}
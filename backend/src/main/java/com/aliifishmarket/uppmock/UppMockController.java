@@ -0,0 +1,294 @@
+package com.aliifishmarket.uppmock;
+
+import com.aliifishmarket.service.UppIntegrationService;
+import com.aliifishmarket.service.UppIntegrationService.UppDeviceRequest;
+import com.aliifishmarket.service.UppIntegrationService.UppDeviceResponse;
+import com.aliifishmarket.service.UppIntegrationService.UppPaymentRequest;
+import com.aliifishmarket.service.UppIntegrationService.UppPaymentResponse;
+import com.aliifishmarket.service.UppIntegrationService.UppPaymentStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * In-JVM stand-in for the Universal Payment Protocol service, active with the
+ * upp-mock profile. Serves the same endpoints UppIntegrationService calls, with
+ * configurable latency, error, decline and timeout injection, and sends signed
+ * webhooks when payments settle. Delays use Mono.delay, so thousands of slow
+ * mock requests do not hold request threads.
+ */
+@RestController
+@RequestMapping("/api")
+@Profile("upp-mock")
+public class UppMockController {
+
+    private static final Logger logger = LoggerFactory.getLogger(UppMockController.class);
+
+    @Autowired
+    private UppIntegrationService uppIntegrationService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.upp.api-key}")
+    private String apiKey;
+
+    @Value("${app.upp-mock.latency.distribution:lognormal}")
+    private String latencyDistribution;
+
+    @Value("${app.upp-mock.latency.median-ms:80}")
+    private double latencyMedianMs;
+
+    @Value("${app.upp-mock.latency.sigma:0.5}")
+    private double latencySigma;
+
+    @Value("${app.upp-mock.latency.max-ms:5000}")
+    private long latencyMaxMs;
+
+    @Value("${app.upp-mock.error-rate:0.0}")
+    private double errorRate;
+
+    @Value("${app.upp-mock.timeout-rate:0.0}")
+    private double timeoutRate;
+
+    @Value("${app.upp-mock.timeout-ms:60000}")
+    private long timeoutMs;
+
+    @Value("${app.upp-mock.decline-rate:0.0}")
+    private double declineRate;
+
+    @Value("${app.upp-mock.settle-delay-ms:200}")
+    private long settleDelayMs;
+
+    @Value("${app.upp-mock.max-payments:100000}")
+    private int maxPayments;
+
+    @Value("${app.upp-mock.webhooks.enabled:true}")
+    private boolean webhooksEnabled;
+
+    @Value("${app.upp-mock.webhooks.url:http://localhost:${server.port:8080}/api/upp/webhooks}")
+    private String webhookUrl;
+
+    private final Map<String, MockPayment> payments = new ConcurrentHashMap<>();
+
+    private final WebClient webhookClient = WebClient.create();
+
+    @PostMapping("/process-payment")
+    public Mono<ResponseEntity<UppPaymentResponse>> processPayment(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestBody UppPaymentRequest request) {
+        if (!authorized(authorization)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+
+        return inject(() -> {
+            UppPaymentResponse response = new UppPaymentResponse();
+            String paymentId = "mock_pay_" + UUID.randomUUID();
+            boolean declined = chance(declineRate);
+            MockPayment payment = new MockPayment(paymentId, "mock_tx_" + UUID.randomUUID(), request.getAmount(),
+                declined ? "FAILED" : "COMPLETED", Instant.now(), Instant.now().plusMillis(settleDelayMs));
+            remember(payment);
+
+            response.setPaymentId(paymentId);
+            response.setTransactionId(payment.transactionId);
+            response.setSuccess(!declined);
+            response.setError(declined ? "Card declined" : null);
+            response.setPaymentUrl("https://upp-mock.local/pay/" + paymentId);
+            scheduleWebhook(payment);
+            return ResponseEntity.ok(response);
+        });
+    }
+
+    @GetMapping("/payment-status/{paymentId}")
+    public Mono<ResponseEntity<UppPaymentStatus>> getPaymentStatus(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @PathVariable String paymentId) {
+        if (!authorized(authorization)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+
+        return inject(() -> {
+            MockPayment payment = payments.get(paymentId);
+            return payment != null
+                ? ResponseEntity.ok(payment.toStatus(Instant.now()))
+                : ResponseEntity.<UppPaymentStatus>notFound().build();
+        });
+    }
+
+    /**
+     * A day's payments as NDJSON sorted by paymentId, for reconciliation
+     */
+    @GetMapping(value = "/payments", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<UppPaymentStatus>> listPayments(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        if (!authorized(authorization)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        Instant now = Instant.now();
+        Flux<UppPaymentStatus> statuses = Flux.fromStream(() -> payments.values().stream()
+            .filter(payment -> payment.createdAt.atZone(ZoneId.systemDefault()).toLocalDate().equals(date))
+            .sorted(Comparator.comparing(payment -> payment.paymentId))
+            .map(payment -> payment.toStatus(now)));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(statuses);
+    }
+
+    @PostMapping("/register-device")
+    public Mono<ResponseEntity<UppDeviceResponse>> registerDevice(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestBody UppDeviceRequest request) {
+        if (!authorized(authorization)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+
+        return inject(() -> {
+            UppDeviceResponse response = new UppDeviceResponse();
+            response.setSuccess(true);
+            response.setDeviceId("mock_dev_" + UUID.nameUUIDFromBytes(
+                String.valueOf(request.getFingerprint()).getBytes()));
+            return ResponseEntity.ok(response);
+        });
+    }
+
+    /**
+     * Apply injected faults, then produce the response after a sampled latency
+     */
+    private <T> Mono<ResponseEntity<T>> inject(Supplier<ResponseEntity<T>> handler) {
+        if (chance(timeoutRate)) {
+            return Mono.delay(Duration.ofMillis(timeoutMs))
+                .then(Mono.just(ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build()));
+        }
+        Duration latency = Duration.ofMillis(sampleLatencyMs());
+        if (chance(errorRate)) {
+            return Mono.delay(latency)
+                .then(Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build()));
+        }
+        return Mono.delay(latency).map(tick -> handler.get());
+    }
+
+    long sampleLatencyMs() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double sample = switch (latencyDistribution.toLowerCase()) {
+            case "fixed" -> latencyMedianMs;
+            case "uniform" -> random.nextDouble(0, 2 * latencyMedianMs);
+            // Median of an exponential distribution is mean * ln 2
+            case "exponential" -> -Math.log(1 - random.nextDouble()) * latencyMedianMs / Math.log(2);
+            default -> latencyMedianMs * Math.exp(latencySigma * random.nextGaussian());
+        };
+        return Math.min(latencyMaxMs, Math.max(0, Math.round(sample)));
+    }
+
+    private void scheduleWebhook(MockPayment payment) {
+        if (!webhooksEnabled) {
+            return;
+        }
+        Mono.delay(Duration.ofMillis(settleDelayMs))
+            .flatMap(tick -> {
+                try {
+                    Map<String, Object> event = Map.of(
+                        "id", "mock_evt_" + UUID.randomUUID(),
+                        "type", "COMPLETED".equals(payment.finalStatus) ? "payment.completed" : "payment.failed",
+                        "createdAt", Instant.now().toString(),
+                        "data", payment.toStatus(Instant.now()));
+                    byte[] body = objectMapper.writeValueAsBytes(event);
+                    String signature = "sha256=" + HexFormat.of().formatHex(
+                        uppIntegrationService.computeWebhookSignature(body));
+                    return webhookClient.post()
+                        .uri(webhookUrl)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-UPP-Signature", signature)
+                        .header("X-UPP-Event-Id", (String) event.get("id"))
+                        .bodyValue(body)
+                        .retrieve()
+                        .toBodilessEntity();
+                } catch (Exception e) {
+                    return Mono.error(e);
+                }
+            })
+            .subscribe(
+                response -> { },
+                error -> logger.debug("Mock webhook for {} failed: {}", payment.paymentId, error.getMessage()));
+    }
+
+    private void remember(MockPayment payment) {
+        payments.put(payment.paymentId, payment);
+        if (payments.size() > maxPayments) {
+            Iterator<String> ids = payments.keySet().iterator();
+            for (int i = 0; i < maxPayments / 10 && ids.hasNext(); i++) {
+                ids.next();
+                ids.remove();
+            }
+        }
+    }
+
+    private boolean authorized(String authorization) {
+        return ("Bearer " + apiKey).equals(authorization);
+    }
+
+    private static boolean chance(double rate) {
+        return rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    private static final class MockPayment {
+        final String paymentId;
+        final String transactionId;
+        final BigDecimal amount;
+        final String finalStatus;
+        final Instant createdAt;
+        final Instant settlesAt;
+
+        MockPayment(String paymentId, String transactionId, BigDecimal amount, String finalStatus,
+                    Instant createdAt, Instant settlesAt) {
+            this.paymentId = paymentId;
+            this.transactionId = transactionId;
+            this.amount = amount;
+            this.finalStatus = finalStatus;
+            this.createdAt = createdAt;
+            this.settlesAt = settlesAt;
+        }
+
+        UppPaymentStatus toStatus(Instant now) {
+            UppPaymentStatus status = new UppPaymentStatus();
+            status.setPaymentId(paymentId);
+            status.setTransactionId(transactionId);
+            status.setAmount(amount);
+            status.setStatus(now.isBefore(settlesAt) ? "PENDING" : finalStatus);
+            status.setError("FAILED".equals(status.getStatus()) ? "Card declined" : null);
+            return status;
+        }
+    }
+}
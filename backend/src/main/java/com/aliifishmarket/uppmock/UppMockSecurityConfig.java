@@ -0,0 +1,26 @@
+package com.aliifishmarket.uppmock;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.web.SecurityFilterChain;
+
+/**
+ * The mock checks the UPP bearer key itself, so its endpoints bypass basic auth
+ */
+@Configuration
+@Profile("upp-mock")
+public class UppMockSecurityConfig {
+
+    @Bean
+    @Order(1)
+    public SecurityFilterChain uppMockSecurityFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher("/api/**")
+            .authorizeHttpRequests(auth -> auth.anyRequest().permitAll())
+            .csrf(csrf -> csrf.disable());
+        return http.build();
+    }
+}
@@ -0,0 +1,72 @@
+package com.aliifishmarket.service;
+
+import com.aliifishmarket.service.ErrorClassifier.Classification;
+import com.aliifishmarket.service.ErrorClassifier.CompiledRules;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ErrorClassifierTest {
+
+    private static CompiledRules defaultRules;
+
+    @BeforeAll
+    static void loadDefaultRules() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = ErrorClassifierTest.class.getResourceAsStream("/error-classification.properties")) {
+            properties.load(in);
+        }
+        defaultRules = CompiledRules.compile(properties);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', nullValues = "null", value = {
+        "IllegalStateException | Payment declined by issuer | critical",
+        "SQLException | Unique constraint violated | high",
+        "RuntimeException | CONNECTION reset by peer | high",
+        "IllegalArgumentException | Invalid input for field quantity | medium",
+        "IllegalArgumentException | Menu item not found: 42 | low",
+        "DataAccessResourceFailureException | null | high",
+        "RuntimeException | Transaction rolled back after database timeout | critical"
+    })
+    void classifiesSeverityFromTypeAndMessage(String type, String message, String severity) {
+        assertThat(defaultRules.classify(type, message).getSeverity()).isEqualTo(severity);
+    }
+
+    @Test
+    void classifiesBusinessImpactByFirstMatchingProfile() {
+        Classification order = defaultRules.classify("IllegalStateException", "Customer order 17 could not be updated");
+        Classification payment = defaultRules.classify("IllegalStateException", "Order payment failed");
+
+        assertThat(order.getBusinessImpact())
+            .containsEntry("revenue", "medium").containsEntry("operations", "high").containsEntry("reputation", "medium");
+        assertThat(payment.getBusinessImpact()).containsEntry("revenue", "high").containsEntry("operations", "high");
+        assertThat(defaultRules.classify("NullPointerException", null).getBusinessImpact())
+            .allSatisfy((dimension, level) -> assertThat(level).isEqualTo("low"));
+    }
+
+    @Test
+    void matchesKeywordsThatOverlapOrEndInsideOthers() {
+        Properties properties = new Properties();
+        properties.setProperty("severity.order", "critical,high,medium");
+        properties.setProperty("severity.critical", "hers");
+        properties.setProperty("severity.high", "he");
+        properties.setProperty("severity.medium", "ushe");
+        CompiledRules rules = CompiledRules.compile(properties);
+
+        // "he" is only reachable through the failure link out of "s-h-e"
+        assertThat(rules.classify("Error", "she").getSeverity()).isEqualTo("high");
+        assertThat(rules.classify("Error", "USHERS").getSeverity()).isEqualTo("critical");
+        assertThat(rules.classify("Error", "ushe").getSeverity()).isEqualTo("high");
+        assertThat(rules.classify("Error", "shé").getSeverity()).isEqualTo("low");
+        // Characters outside ASCII restart the match
+        assertThat(rules.classify("Error", "hée").getSeverity()).isEqualTo("low");
+    }
+}
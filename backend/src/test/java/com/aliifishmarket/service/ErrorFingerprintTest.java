@@ -0,0 +1,67 @@
+package com.aliifishmarket.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class ErrorFingerprintTest {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "Order not found: ALI1729312345678-3F2A | Order not found: ALI1729312399001-B07C",
+        "Staff not found: EMP001 | Staff not found: EMP117",
+        "Menu item not found: 12 | Menu item not found: 4711",
+        "Insufficient stock for menu item 3: requested 2, available 0 | Insufficient stock for menu item 9: requested 14, available 1",
+        "Payment upp_pay_8f3a9c21d4e5 declined | Payment upp_pay_1b2c3d4e5f6a declined",
+        "Failed to send receipt to jane.doe@example.com | Failed to send receipt to kai+orders@aliifishmarket.com",
+        "Duplicate key (order_number)=('ALI1') | Duplicate key (order_number)=('ALI2')",
+        "Connection to 10.0.3.17:5432 refused | Connection to 10.0.3.42:5432 refused",
+        "Read timed out after 5000ms | Read timed out after 30000ms"
+    })
+    void collapsesMessagesThatOnlyDifferInValues(String first, String second) {
+        assertThat(ErrorFingerprint.normalizeMessage(first)).isEqualTo(ErrorFingerprint.normalizeMessage(second));
+    }
+
+    @Test
+    void collapsesPrefixedUuids() {
+        String first = ErrorFingerprint.normalizeMessage("UPP payment mock_pay_" + UUID.randomUUID() + " not found");
+        String second = ErrorFingerprint.normalizeMessage("UPP payment mock_pay_" + UUID.randomUUID() + " not found");
+
+        assertThat(first).isEqualTo(second).isEqualTo("UPP payment mock_pay_<uuid> not found");
+    }
+
+    @Test
+    void masksPersonalData() {
+        String normalized = ErrorFingerprint.normalizeMessage(
+            "Order ALI1729312345678-3F2A for jane.doe@example.com failed at step 'charge card 4242'");
+
+        assertThat(normalized)
+            .isEqualTo("Order <id> for <email> failed at step '?'")
+            .doesNotContainPattern("\\d");
+    }
+
+    @Test
+    void terminatesOnCyclicCauses() {
+        IllegalStateException outer = new IllegalStateException("Order failed");
+        RuntimeException inner = new RuntimeException("Payment failed", outer);
+        outer.initCause(inner);
+
+        ErrorFingerprint cyclic = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> ErrorFingerprint.of(outer));
+
+        assertThat(cyclic.getId()).isEqualTo(ErrorFingerprint.of(outer).getId());
+        assertThat(cyclic.getExceptionType()).isEqualTo(IllegalStateException.class.getName());
+    }
+
+    @Test
+    void keepsMessagesThatDifferInWords() {
+        assertThat(ErrorFingerprint.normalizeMessage("Payment declined"))
+            .isNotEqualTo(ErrorFingerprint.normalizeMessage("Payment timed out"));
+        assertThat(ErrorFingerprint.normalizeMessage(null)).isEmpty();
+    }
+}
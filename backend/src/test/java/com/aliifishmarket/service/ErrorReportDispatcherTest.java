@@ -0,0 +1,129 @@
+package com.aliifishmarket.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.jsonPath;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class ErrorReportDispatcherTest {
+
+    @TempDir
+    Path dir;
+
+    private final ErrorReportDispatcher dispatcher = new ErrorReportDispatcher();
+    private final ErrorReportSpool spool = new ErrorReportSpool();
+    private MockRestServiceServer monitor;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(spool, "enabled", true);
+        ReflectionTestUtils.setField(spool, "path", dir.resolve("spool.dat").toString());
+        ReflectionTestUtils.setField(spool, "maxBytes", 64 * 1024L);
+        spool.open();
+
+        RestTemplate restTemplate = new RestTemplateBuilder().rootUri("http://monitor").build();
+        monitor = MockRestServiceServer.bindTo(restTemplate).build();
+
+        ReflectionTestUtils.setField(dispatcher, "errorMonitorRestTemplate", restTemplate);
+        ReflectionTestUtils.setField(dispatcher, "spool", spool);
+        ReflectionTestUtils.setField(dispatcher, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(dispatcher, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 100);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 50);
+        // Drains are triggered by the test, not the schedule
+        ReflectionTestUtils.setField(dispatcher, "flushIntervalMs", 3_600_000L);
+        ReflectionTestUtils.setField(dispatcher, "overflowPolicy", ErrorReportDispatcher.OverflowPolicy.DROP_OLDEST);
+        ReflectionTestUtils.setField(dispatcher, "workerThreads", 1);
+        ReflectionTestUtils.setField(dispatcher, "reportPath", "/api/errors/report");
+        ReflectionTestUtils.setField(dispatcher, "batchEnabled", false);
+        ReflectionTestUtils.setField(dispatcher, "batchPath", "/api/errors/report/batch");
+        ReflectionTestUtils.setField(dispatcher, "initialBackoffMs", 3_600_000L);
+        ReflectionTestUtils.setField(dispatcher, "maxBackoffMs", 3_600_000L);
+        dispatcher.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+        spool.close();
+    }
+
+    @Test
+    void postsEachReportToItsChannelEndpoint() {
+        monitor.expect(requestTo("http://monitor/api/errors/report")).andExpect(method(HttpMethod.POST))
+            .andExpect(jsonPath("$.message").value("runtime failure"))
+            .andRespond(withSuccess());
+        monitor.expect(requestTo("http://monitor/api/errors/report/payment"))
+            .andExpect(jsonPath("$.channel").value("payment"))
+            .andRespond(withSuccess());
+
+        dispatcher.submit("runtime", report("runtime failure"));
+        dispatcher.submit("payment", report("card declined"));
+        drain();
+
+        monitor.verify();
+        assertThat(spool.size()).isZero();
+    }
+
+    @Test
+    void replaysSpooledReportsToTheirChannelEndpoint() {
+        monitor.expect(requestTo("http://monitor/api/errors/report/upp"))
+            .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+        dispatcher.submit("upp", report("UPP timed out"));
+        drain();
+        monitor.verify();
+        assertThat(spool.size()).isEqualTo(1);
+
+        monitor.reset();
+        // Backoff elapsed
+        ReflectionTestUtils.setField(dispatcher, "nextReplayAt", 0L);
+        monitor.expect(requestTo("http://monitor/api/errors/report/upp"))
+            .andExpect(jsonPath("$.message").value("UPP timed out"))
+            .andRespond(withSuccess());
+        drain();
+
+        monitor.verify();
+        assertThat(spool.size()).isZero();
+    }
+
+    @Test
+    void dropsReportsTheMonitorRejects() {
+        monitor.expect(requestTo("http://monitor/api/errors/report/database"))
+            .andRespond(withStatus(HttpStatus.UNPROCESSABLE_ENTITY));
+
+        dispatcher.submit("database", report("deadlock detected"));
+        drain();
+
+        monitor.verify();
+        assertThat(spool.size()).isZero();
+    }
+
+    private void drain() {
+        ReflectionTestUtils.invokeMethod(dispatcher, "drainSafely");
+    }
+
+    private static Map<String, Object> report(String message) {
+        Map<String, Object> report = new HashMap<>();
+        report.put("message", message);
+        return report;
+    }
+}
@@ -0,0 +1,126 @@
+package com.aliifishmarket.service;
+
+import com.aliifishmarket.service.ErrorReportSpool.Batch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ErrorReportSpoolTest {
+
+    // Smallest ring: 4096 bytes of records after the 64-byte header
+    private static final long MAX_BYTES = 4096 + 64;
+
+    @TempDir
+    Path dir;
+
+    private ErrorReportSpool spool;
+
+    @AfterEach
+    void tearDown() {
+        spool.close();
+    }
+
+    @Test
+    void overwritesOldestReportsWhenFull() {
+        spool = open(MAX_BYTES);
+
+        // 1004 bytes per record, so four fit and later ones wrap around the end of the ring
+        for (int i = 0; i < 10; i++) {
+            assertThat(spool.append(report(i, 1000))).isTrue();
+        }
+
+        assertThat(spool.size()).isEqualTo(4);
+        assertThat(spool.getOverwrittenCount()).isEqualTo(6);
+        assertThat(spool.peek(10).getReports()).containsExactly(report(6, 1000), report(7, 1000),
+            report(8, 1000), report(9, 1000));
+    }
+
+    @Test
+    void commitRemovesDeliveredReports() {
+        spool = open(MAX_BYTES);
+        for (int i = 0; i < 3; i++) {
+            spool.append(report(i, 100));
+        }
+
+        spool.commit(spool.peek(2));
+
+        assertThat(spool.size()).isEqualTo(1);
+        assertThat(spool.peek(10).getReports()).containsExactly(report(2, 100));
+    }
+
+    @Test
+    void commitAfterOverwriteKeepsNewerReports() {
+        spool = open(MAX_BYTES);
+        for (int i = 0; i < 4; i++) {
+            spool.append(report(i, 1000));
+        }
+        Batch inFlight = spool.peek(2);
+
+        // Overwrites report 0 while reports 0 and 1 are being delivered
+        spool.append(report(4, 1000));
+        spool.commit(inFlight);
+
+        assertThat(spool.size()).isEqualTo(3);
+        assertThat(spool.peek(10).getReports()).containsExactly(report(2, 1000), report(3, 1000), report(4, 1000));
+    }
+
+    @Test
+    void rejectsReportsThatCanNeverFit() {
+        spool = open(MAX_BYTES);
+
+        assertThat(spool.append(new byte[4096])).isFalse();
+        assertThat(spool.size()).isZero();
+    }
+
+    @Test
+    void recoversUndeliveredReportsAfterRestart() {
+        spool = open(MAX_BYTES);
+        for (int i = 0; i < 6; i++) {
+            spool.append(report(i, 1000));
+        }
+        spool.commit(spool.peek(1));
+        spool.close();
+
+        spool = open(MAX_BYTES);
+
+        assertThat(spool.size()).isEqualTo(3);
+        assertThat(spool.peek(10).getReports()).containsExactly(report(3, 1000), report(4, 1000), report(5, 1000));
+        assertThat(spool.append(report(6, 1000))).isTrue();
+        assertThat(spool.size()).isEqualTo(4);
+    }
+
+    @Test
+    void startsEmptyWhenCapacityChanged() {
+        spool = open(MAX_BYTES);
+        spool.append(report(1, 100));
+        spool.close();
+
+        spool = open(2 * MAX_BYTES);
+
+        assertThat(spool.size()).isZero();
+        assertThat(spool.peek(10).isEmpty()).isTrue();
+    }
+
+    private ErrorReportSpool open(long maxBytes) {
+        ErrorReportSpool spool = new ErrorReportSpool();
+        ReflectionTestUtils.setField(spool, "enabled", true);
+        ReflectionTestUtils.setField(spool, "path", dir.resolve("spool.dat").toString());
+        ReflectionTestUtils.setField(spool, "maxBytes", maxBytes);
+        spool.open();
+        assertThat(spool.isAvailable()).isTrue();
+        return spool;
+    }
+
+    private static byte[] report(int id, int length) {
+        byte[] report = new byte[length];
+        Arrays.fill(report, (byte) ('a' + id));
+        report[0] = (byte) id;
+        return report;
+    }
+}
@@ -0,0 +1,80 @@
+package com.aliifishmarket.service;
+
+import com.aliifishmarket.service.LowStockMonitor.LowStockEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LowStockMonitorTest {
+
+    private final LowStockMonitor monitor = new LowStockMonitor();
+    private final List<LowStockEvent.Type> events = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ApplicationEventPublisher publisher = event -> events.add(((LowStockEvent) event).getType());
+        ReflectionTestUtils.setField(monitor, "eventPublisher", publisher);
+        ReflectionTestUtils.setField(monitor, "hysteresis", 2);
+    }
+
+    @Test
+    void alertsOncePerCrossingWithHysteresis() {
+        monitor.onStockChanged(1L, () -> 5, 5);
+        monitor.onStockChanged(1L, () -> 4, 5);
+        monitor.onStockChanged(1L, () -> 7, 5);
+        assertThat(monitor.getLowStockItems()).hasSize(1);
+
+        monitor.onStockChanged(1L, () -> 8, 5);
+
+        assertThat(monitor.getLowStockItems()).isEmpty();
+        assertThat(events).containsExactly(LowStockEvent.Type.LOW, LowStockEvent.Type.RECOVERED);
+    }
+
+    @Test
+    void restockDuringLowCheckDoesNotStrandTheItem() {
+        // This check read 5; a restock to 100 was checked before the LOW entry existed
+        monitor.onStockChanged(1L, readings(5, 100), 5);
+
+        assertThat(monitor.getLowStockItems()).isEmpty();
+        assertThat(events).containsExactly(LowStockEvent.Type.LOW, LowStockEvent.Type.RECOVERED);
+    }
+
+    @Test
+    void saleDuringRecoveryCheckKeepsTheItemLow() {
+        monitor.onStockChanged(1L, () -> 3, 5);
+
+        // This check read 100; a sale down to 4 was checked while the LOW entry still existed
+        monitor.onStockChanged(1L, readings(100, 4), 5);
+
+        assertThat(monitor.getLowStockItems()).singleElement()
+            .satisfies(item -> assertThat(item.getAvailable()).isEqualTo(4));
+        assertThat(events).containsExactly(LowStockEvent.Type.LOW, LowStockEvent.Type.RECOVERED,
+            LowStockEvent.Type.LOW);
+    }
+
+    @Test
+    void untrackedMinimumClearsTheItem() {
+        monitor.onStockChanged(1L, () -> 0, 5);
+        monitor.onStockChanged(1L, () -> 0, null);
+
+        assertThat(monitor.getLowStockItems()).isEmpty();
+    }
+
+    /**
+     * Successive stock readings, the last one repeating
+     */
+    private static LongSupplier readings(long... levels) {
+        Iterator<Long> iterator = Arrays.stream(levels).boxed().iterator();
+        long[] last = { 0 };
+        return () -> last[0] = iterator.hasNext() ? iterator.next() : last[0];
+    }
+}
@@ -0,0 +1,75 @@
+package com.aliifishmarket.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MergeJoinTest {
+
+    @Test
+    void reportsMatchesAndRowsOnlyOnOneSide() {
+        assertThat(join(List.of("a1", "c1", "d1"), List.of("b2", "c2", "e2")))
+            .containsExactly("left a1", "right b2", "match c1 c2", "left d1", "right e2");
+    }
+
+    @Test
+    void reportsFurtherRowsWithTheSameKeyAsDuplicates() {
+        assertThat(join(List.of("a1", "a2", "b1"), List.of("a3", "b2", "b3", "b4")))
+            .containsExactly("match a1 a3", "duplicate left a2", "match b1 b2", "duplicate right b3", "duplicate right b4");
+        assertThat(join(List.of("a1", "a2"), List.of()))
+            .containsExactly("left a1", "duplicate left a2");
+    }
+
+    @Test
+    void skipsRowsWithoutKey() {
+        assertThat(join(List.of("?1", "a1", "?2"), List.of("a2", "?3")))
+            .containsExactly("match a1 a2");
+    }
+
+    @Test
+    void handlesEmptyInputs() {
+        assertThat(join(List.of(), List.of())).isEmpty();
+        assertThat(join(List.of(), List.of("a1", "b1"))).containsExactly("right a1", "right b1");
+    }
+
+    @Test
+    void failsFastOnUnsortedInput() {
+        assertThatThrownBy(() -> join(List.of("a1"), List.of("b1", "a2")))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("right input is not sorted");
+    }
+
+    /**
+     * Joins rows on their first character ("?" means no key) and records what the handler saw
+     */
+    private static List<String> join(List<String> left, List<String> right) {
+        List<String> events = new ArrayList<>();
+        MergeJoin.join(left.iterator(), MergeJoinTest::key, right.iterator(), MergeJoinTest::key,
+            Comparator.naturalOrder(), new MergeJoin.Handler<String, String, String>() {
+                @Override
+                public void matched(String key, String l, String r) { events.add("match " + l + " " + r); }
+
+                @Override
+                public void leftOnly(String key, String l) { events.add("left " + l); }
+
+                @Override
+                public void rightOnly(String key, String r) { events.add("right " + r); }
+
+                @Override
+                public void duplicateLeft(String key, String l) { events.add("duplicate left " + l); }
+
+                @Override
+                public void duplicateRight(String key, String r) { events.add("duplicate right " + r); }
+            });
+        return events;
+    }
+
+    private static String key(String row) {
+        return row.startsWith("?") ? null : row.substring(0, 1);
+    }
+}
@@ -0,0 +1,111 @@
+package com.aliifishmarket.service;
+
+import com.aliifishmarket.service.InventoryService.StripedStock;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedStockTest {
+
+    @Test
+    void takesAcrossStripesWhenHomeStripeIsShort() {
+        // 4 stripes of 3, 3, 2, 2: no single stripe covers 10
+        StripedStock stock = new StripedStock(4, 10);
+
+        assertThat(stock.tryTake(10)).isTrue();
+        assertThat(stock.sum()).isZero();
+        assertThat(stock.tryTake(1)).isFalse();
+    }
+
+    @Test
+    void rollsBackPartialTakeWhenStockIsShort() {
+        StripedStock stock = new StripedStock(4, 7);
+
+        assertThat(stock.tryTake(8)).isFalse();
+        assertThat(stock.sum()).isEqualTo(7);
+        // Every stripe got its units back, so the full amount is still takeable
+        assertThat(stock.tryTake(7)).isTrue();
+        assertThat(stock.sum()).isZero();
+    }
+
+    @Test
+    void addedStockIsTakeableFromAnyThread() throws Exception {
+        StripedStock stock = new StripedStock(8, 0);
+        stock.add(5);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertThat(executor.submit(() -> stock.tryTake(5)).get()).isTrue();
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(stock.sum()).isZero();
+    }
+
+    @Test
+    void resetRedistributesStock() {
+        StripedStock stock = new StripedStock(4, 2);
+        assertThat(stock.tryTake(2)).isTrue();
+
+        stock.reset(9);
+
+        assertThat(stock.sum()).isEqualTo(9);
+        assertThat(stock.tryTake(9)).isTrue();
+    }
+
+    @Test
+    void resetKeepsNegativeLevels() {
+        // Counters loaded from a row that was already oversold
+        StripedStock stock = new StripedStock(4, -5);
+
+        assertThat(stock.sum()).isEqualTo(-5);
+        assertThat(stock.tryTake(1)).isFalse();
+        stock.add(6);
+        assertThat(stock.tryTake(1)).isTrue();
+        assertThat(stock.sum()).isZero();
+    }
+
+    @Test
+    void concurrentTakesNeverOversell() throws Exception {
+        long initial = 10_000;
+        StripedStock stock = new StripedStock(8, initial);
+        int threads = 8;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Long>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                int quantity = 1 + t % 3;
+                results.add(executor.submit(() -> {
+                    long taken = 0;
+                    int misses = 0;
+                    // Other threads' rollbacks can make a miss transient, so retry a few times
+                    while (misses < 100) {
+                        if (stock.tryTake(quantity)) {
+                            taken += quantity;
+                        } else {
+                            misses++;
+                        }
+                    }
+                    return taken;
+                }));
+            }
+
+            long taken = 0;
+            for (Future<Long> result : results) {
+                taken += result.get(30, TimeUnit.SECONDS);
+            }
+            assertThat(taken).isLessThanOrEqualTo(initial);
+            assertThat(stock.sum()).isEqualTo(initial - taken).isBetween(0L, 2L);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
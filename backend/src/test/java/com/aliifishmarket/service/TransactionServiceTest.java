@@ -0,0 +1,65 @@
+package com.aliifishmarket.service;
+
+import com.aliifishmarket.model.Staff;
+import com.aliifishmarket.model.Transaction;
+import com.aliifishmarket.repository.StaffRepository;
+import com.aliifishmarket.repository.TransactionRepository;
+import com.aliifishmarket.service.TransactionService.TransactionCreateRequest;
+import com.aliifishmarket.service.TransactionService.TransactionItemRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionServiceTest {
+
+    private final TransactionService transactionService = new TransactionService();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        StaffRepository staffRepository = mock(StaffRepository.class);
+        when(staffRepository.findByEmployeeId("EMP001")).thenReturn(Optional.of(new Staff()));
+        TransactionRepository transactionRepository = mock(TransactionRepository.class);
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ReflectionTestUtils.setField(transactionService, "staffRepository", staffRepository);
+        ReflectionTestUtils.setField(transactionService, "transactionRepository", transactionRepository);
+        ReflectionTestUtils.setField(transactionService, "meterRegistry", meterRegistry);
+    }
+
+    @Test
+    void createsTransactionWithItems() {
+        TransactionItemRequest poke = new TransactionItemRequest();
+        poke.setItemName("Shoyu Poke Bowl");
+        poke.setItemPrice(new BigDecimal("14.50"));
+        poke.setQuantity(2);
+
+        TransactionCreateRequest request = new TransactionCreateRequest();
+        request.setTransactionId("TXN-1");
+        request.setReceiptNumber("R-1");
+        request.setStaffEmployeeId("EMP001");
+        request.setPaymentMethod(Transaction.PaymentMethod.CASH);
+        request.setSubtotal(new BigDecimal("29.00"));
+        request.setTaxAmount(new BigDecimal("1.37"));
+        request.setTotalAmount(new BigDecimal("30.37"));
+        request.setCashReceived(new BigDecimal("40.00"));
+        request.setItems(List.of(poke));
+
+        Transaction transaction = transactionService.createTransaction(request);
+
+        assertThat(transaction.getItems()).singleElement()
+            .satisfies(item -> assertThat(item.getTransaction()).isSameAs(transaction));
+        assertThat(transaction.getChangeGiven()).isEqualByComparingTo("9.63");
+        assertThat(meterRegistry.counter("transactions.created", "paymentMethod", "CASH").count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,94 @@
+-- Archive tables for closed orders and old transactions
+-- Rows are moved here in small batches by ArchivalService so the hot tables
+-- (and their indexes) only hold the recent working set.
+
+-- Transactions archive
+CREATE TABLE IF NOT EXISTS transactions_archive (
+    id BIGINT PRIMARY KEY,
+    transaction_id VARCHAR(100) UNIQUE NOT NULL,
+    receipt_number VARCHAR(20) NOT NULL,
+    staff_id BIGINT,
+    payment_method VARCHAR(20) NOT NULL,
+    subtotal DECIMAL(10,2) NOT NULL,
+    tax_amount DECIMAL(10,2) NOT NULL,
+    total_amount DECIMAL(10,2) NOT NULL,
+    cash_received DECIMAL(10,2),
+    change_given DECIMAL(10,2),
+    status VARCHAR(20),
+    transaction_date DATE NOT NULL,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Transaction Items archive
+CREATE TABLE IF NOT EXISTS transaction_items_archive (
+    id BIGINT PRIMARY KEY,
+    transaction_id BIGINT NOT NULL,
+    item_name VARCHAR(255) NOT NULL,
+    item_price DECIMAL(8,2) NOT NULL,
+    quantity INTEGER NOT NULL,
+    line_total DECIMAL(10,2) NOT NULL,
+    created_at TIMESTAMP,
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Orders archive
+CREATE TABLE IF NOT EXISTS orders_archive (
+    id BIGINT PRIMARY KEY,
+    order_number VARCHAR(255) UNIQUE NOT NULL,
+    customer_name VARCHAR(255) NOT NULL,
+    customer_email VARCHAR(255),
+    customer_phone VARCHAR(255) NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    order_type VARCHAR(255) NOT NULL,
+    scheduled_time TIMESTAMP,
+    estimated_ready_time TIMESTAMP,
+    subtotal DECIMAL(10,2) NOT NULL,
+    tax_amount DECIMAL(10,2) NOT NULL,
+    service_fee DECIMAL(10,2) NOT NULL,
+    total_amount DECIMAL(10,2) NOT NULL,
+    payment_method VARCHAR(255),
+    payment_status VARCHAR(255),
+    payment_transaction_id VARCHAR(255),
+    upp_payment_id VARCHAR(255),
+    special_instructions TEXT,
+    staff_notes TEXT,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    completed_at TIMESTAMP,
+    assigned_staff_id BIGINT,
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Order Items archive
+CREATE TABLE IF NOT EXISTS order_items_archive (
+    id BIGINT PRIMARY KEY,
+    order_id BIGINT NOT NULL,
+    menu_item_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL,
+    unit_price DECIMAL(10,2) NOT NULL,
+    subtotal DECIMAL(10,2) NOT NULL,
+    special_instructions TEXT,
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Order Item customizations archive
+CREATE TABLE IF NOT EXISTS order_item_customizations_archive (
+    order_item_id BIGINT NOT NULL,
+    customization VARCHAR(255)
+);
+
+-- Indexes used by archive reads
+CREATE INDEX IF NOT EXISTS idx_transactions_archive_date ON transactions_archive(transaction_date);
+CREATE INDEX IF NOT EXISTS idx_transactions_archive_staff ON transactions_archive(staff_id);
+CREATE INDEX IF NOT EXISTS idx_transaction_items_archive_transaction ON transaction_items_archive(transaction_id);
+CREATE INDEX IF NOT EXISTS idx_orders_archive_created ON orders_archive(created_at);
+CREATE INDEX IF NOT EXISTS idx_orders_archive_upp_payment ON orders_archive(upp_payment_id);
+CREATE INDEX IF NOT EXISTS idx_order_items_archive_order ON order_items_archive(order_id);
+CREATE INDEX IF NOT EXISTS idx_order_item_customizations_archive_item ON order_item_customizations_archive(order_item_id);
+
+-- Indexes used by the archival job to find eligible rows in the hot tables
+-- (the expression must match OrderRepository.findIdsForArchival)
+CREATE INDEX IF NOT EXISTS idx_orders_status_closed_at
+    ON orders(status, (COALESCE(completed_at, updated_at, created_at)));
@@ -0,0 +1,17 @@
+-- Cached UPP device registrations
+-- Staff tablets re-register on every start; UppDeviceRegistryService serves
+-- repeat registrations from here until they expire, refreshing ahead of expiry.
+
+CREATE TABLE IF NOT EXISTS upp_device_registrations (
+    id BIGSERIAL PRIMARY KEY,
+    fingerprint VARCHAR(255) NOT NULL,
+    staff_member_id VARCHAR(50) NOT NULL,
+    device_type VARCHAR(50) NOT NULL,
+    capabilities VARCHAR(500),
+    upp_device_id VARCHAR(255) NOT NULL,
+    registered_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_upp_device_fingerprint_staff UNIQUE (fingerprint, staff_member_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_upp_device_registrations_expires_at ON upp_device_registrations(expires_at);